@@ -1,5 +1,7 @@
 import org.jetbrains.changelog.markdownToHTML
 import org.jetbrains.kotlin.gradle.tasks.KotlinCompile
+import java.io.DataOutputStream
+import java.util.Properties
 
 fun properties(key: String) = project.findProperty(key).toString()
 
@@ -14,6 +16,8 @@ plugins {
     id("org.jetbrains.changelog") version "1.3.1"
     // Gradle Qodana Plugin
     id("org.jetbrains.qodana") version "0.1.13"
+    // JMH benchmarks
+    id("me.champeau.jmh") version "0.6.6"
 }
 
 group = properties("pluginGroup")
@@ -24,6 +28,80 @@ repositories {
     mavenCentral()
 }
 
+// Generate the binary PHP function dictionary from the phpstorm-stubs copy in `stubs`. `-PphpStubsDir=<checkout>`
+// reads a full phpstorm-stubs checkout instead
+val generatePhpFunctionDictionary by tasks.registering {
+    description = "Generates the PHP function dictionary resource from the phpstorm-stubs declarations."
+
+    val stubsDir = file(findProperty("phpStubsDir") ?: "stubs")
+    val mappingFile = projectDir.resolve("stubs/categories.properties")
+    val outputDir = buildDir.resolve("generated/phpFunctionDictionary")
+    inputs.dir(stubsDir).withPropertyName("stubs")
+    inputs.file(mappingFile)
+    outputs.dir(outputDir)
+
+    doLast {
+        val mapping = Properties().apply {
+            mappingFile.reader().use { load(it) }
+        }
+        val prefixes = mapping.stringPropertyNames()
+            .filter { it.startsWith("prefix.") }
+            .map { it.removePrefix("prefix.") }
+            .sortedByDescending { it.length }
+        val declaration = Regex("""^function\s+&?\s*([A-Za-z_][A-Za-z0-9_]*)\s*\(""", RegexOption.MULTILINE)
+
+        val functions = sortedMapOf<String, String>()
+        stubsDir.listFiles { file -> file.isDirectory }.orEmpty().sortedBy { it.name }.forEach { extension ->
+            val extensionCategory = mapping.getProperty(extension.name) ?: return@forEach
+            extension.walkTopDown().filter { it.isFile && it.extension == "php" }.sortedBy { it.path }.forEach { stub ->
+                declaration.findAll(stub.readText()).forEach { match ->
+                    val name = match.groupValues[1]
+                    val category = mapping.getProperty("function.$name")
+                        ?: prefixes.firstOrNull { name.startsWith(it) }?.let { mapping.getProperty("prefix.$it") }
+                        ?: extensionCategory
+                    functions.putIfAbsent(name, category)
+                }
+            }
+        }
+
+        // Layout: magic, version, category names, then (category index, length, ASCII chars) per function
+        functions.keys.firstOrNull { it.length > 255 }?.let {
+            throw GradleException("PHP function name longer than the 255 chars the dictionary can hold: $it")
+        }
+        if (functions.isEmpty()) {
+            throw GradleException("No PHP functions found in $stubsDir")
+        }
+        val categories = functions.values.distinct().sorted()
+        val dictionary = outputDir.resolve("dictionary/phpFunctions.bin")
+        dictionary.parentFile.mkdirs()
+        DataOutputStream(dictionary.outputStream().buffered()).use { out ->
+            out.writeInt(0x50485046)
+            out.writeByte(1)
+            out.writeByte(categories.size)
+            categories.forEach { out.writeUTF(it) }
+            out.writeInt(functions.size)
+            functions.forEach { (name, category) ->
+                out.writeByte(categories.indexOf(category))
+                out.writeByte(name.length)
+                out.writeBytes(name)
+            }
+        }
+    }
+}
+
+sourceSets {
+    main {
+        resources.srcDir(generatePhpFunctionDictionary)
+    }
+}
+
+// Highlight PHP files outside the IDE, e.g. `./gradlew highlightPhp --args="--output build/php-html vendor"`
+val highlightPhp by tasks.registering(JavaExec::class) {
+    description = "Highlights a tree of PHP files to HTML or ANSI with the bundled color schemes."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.jsonjuri.phpSyntaxColorHighlighter.cli.HighlightCli")
+}
+
 // Configure Gradle IntelliJ Plugin - read more: https://github.com/JetBrains/gradle-intellij-plugin
 intellij {
     pluginName.set(properties("pluginName"))
@@ -34,6 +112,21 @@ intellij {
     plugins.set(properties("platformPlugins").split(',').map(String::trim).filter(String::isNotEmpty))
 }
 
+// Configure JMH - run with `./gradlew jmh`, optionally narrowed with `-PjmhIncludes=KeywordLookup`
+jmh {
+    jmhVersion.set("1.35")
+    // The benchmarks share PhpCorpusGenerator with the tests
+    includeTests.set(true)
+    // PsiHighlightBenchmark starts the platform in a light fixture, which needs the JVM arguments of the tests
+    jvmArgsAppend.set(provider { tasks.test.get().allJvmArgs })
+    includes.set(listOf(project.findProperty("jmhIncludes")?.toString() ?: ".*"))
+    profilers.set(listOf("gc"))
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    resultFormat.set("JSON")
+}
+
 // Configure Gradle Changelog Plugin - read more: https://github.com/JetBrains/gradle-changelog-plugin
 changelog {
     version.set(properties("pluginVersion"))
@@ -64,6 +157,12 @@ tasks {
         gradleVersion = properties("gradleVersion")
     }
 
+    test {
+        // HighlightMemoryTest highlights files of up to 100k lines; `-PhighlightBytesPerTokenBudget=n` sets its budget
+        maxHeapSize = "2g"
+        findProperty("highlightBytesPerTokenBudget")?.let { systemProperty("highlightBytesPerTokenBudget", it) }
+    }
+
     patchPluginXml {
         version.set(properties("pluginVersion"))
         sinceBuild.set(properties("pluginSinceBuild"))
@@ -0,0 +1,164 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classifies a synthetic stream of identifier tokens with the char table and with the strategies it replaced, all
+ * holding the words of {@link KeywordTable#builtIns()}.
+ * <p>
+ * Tokens are {@link CharSequence} views into one text, like the chars of a PSI leaf, so the {@code hashMap}
+ * variant pays for the {@code toString()} the old {@code getText()} based lookup did.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class KeywordLookupBenchmark {
+    private static final int TOKENS = 4096;
+    private static final String[] IDENTIFIERS = {"user", "orderTotal", "x", "repository", "handleRequest", "fooBar"};
+
+    /**
+     * Which tokens the stream is drawn from: only table words, only plain identifiers, or both.
+     */
+    @Param({"keywords", "identifiers", "mixed"})
+    public String mix;
+
+    private CharSequence[] tokens;
+    private KeywordTable table;
+    private Map<String, Integer> map;
+    private String[] sortedWords;
+    private byte[] sortedCategories;
+
+    @Setup
+    public void setUp() {
+        table = KeywordTable.builtIns();
+
+        // All three lookups hold the same words: the enum words and the function dictionary of the built-in table
+        map = new HashMap<>();
+        for (int entry = 0; entry < table.size(); entry++) {
+            map.put(table.wordAt(entry), table.categoryAt(entry));
+        }
+        sortedWords = map.keySet().toArray(new String[0]);
+        Arrays.sort(sortedWords, KeywordLookupBenchmark::compare);
+        sortedCategories = new byte[sortedWords.length];
+        for (int i = 0; i < sortedWords.length; i++) {
+            sortedCategories[i] = (byte) (int) map.get(sortedWords[i]);
+        }
+
+        final String[] words = map.keySet().toArray(new String[0]);
+        final Random random = new Random(42);
+        final StringBuilder text = new StringBuilder();
+        final List<int[]> ranges = new ArrayList<>();
+        for (int i = 0; i < TOKENS; i++) {
+            final boolean keyword = "keywords".equals(mix) || ("mixed".equals(mix) && random.nextInt(4) == 0);
+            final String word = keyword ? words[random.nextInt(words.length)] : IDENTIFIERS[random.nextInt(IDENTIFIERS.length)];
+            ranges.add(new int[]{text.length(), text.length() + word.length()});
+            text.append(word).append(' ');
+        }
+        final String source = text.toString();
+        tokens = new CharSequence[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            tokens[i] = CharBuffer.wrap(source, ranges.get(i)[0], ranges.get(i)[1]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TOKENS)
+    public int charTable() {
+        int found = 0;
+        for (final CharSequence token : tokens) {
+            found += table.categoryOf(token);
+        }
+        return found;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TOKENS)
+    public int hashMap() {
+        int found = 0;
+        for (final CharSequence token : tokens) {
+            final Integer category = map.get(token.toString());
+            found += category == null ? KeywordTable.NOT_FOUND : category;
+        }
+        return found;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TOKENS)
+    public int sortedArray() {
+        int found = 0;
+        for (final CharSequence token : tokens) {
+            int low = 0;
+            int high = sortedWords.length - 1;
+            int category = KeywordTable.NOT_FOUND;
+            while (low <= high) {
+                final int middle = (low + high) >>> 1;
+                final int order = compare(sortedWords[middle], token);
+                if (order < 0) {
+                    low = middle + 1;
+                } else if (order > 0) {
+                    high = middle - 1;
+                } else {
+                    category = sortedCategories[middle];
+                    break;
+                }
+            }
+            found += category;
+        }
+        return found;
+    }
+
+    private static int compare(@NotNull final CharSequence a, @NotNull final CharSequence b) {
+        final int length = Math.min(a.length(), b.length());
+        for (int i = 0; i < length; i++) {
+            final int order = a.charAt(i) - b.charAt(i);
+            if (order != 0) {
+                return order;
+            }
+        }
+        return a.length() - b.length();
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.testFramework.EdtTestUtil;
+import com.intellij.testFramework.LightProjectDescriptor;
+import com.intellij.testFramework.fixtures.CodeInsightTestFixture;
+import com.intellij.testFramework.fixtures.IdeaTestFixtureFactory;
+import com.jsonjuri.phpSyntaxColorHighlighter.settings.CodeColorOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classifies a generated PHP file parsed by the PHP plugin in a light fixture, through the PSI paths the editor uses:
+ * the tree walk of the single-pass highlighting and the per-element annotator. Compare with
+ * {@link CorpusHighlightBenchmark}, which classifies the same kind of file from its text.
+ * <p>
+ * The fixture needs the platform, so the {@code jmh} task runs with the JVM arguments of the {@code test} task.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class PsiHighlightBenchmark {
+    @Param({"500", "5000"})
+    public int lines;
+
+    private CodeInsightTestFixture fixture;
+    private PsiFile file;
+    private List<PsiElement> elements;
+    private KeywordTable table;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        final IdeaTestFixtureFactory factory = IdeaTestFixtureFactory.getFixtureFactory();
+        fixture = factory.createCodeInsightFixture(factory.createLightFixtureBuilder(LightProjectDescriptor.EMPTY_PROJECT_DESCRIPTOR).getFixture());
+        EdtTestUtil.runInEdtAndWait(() -> {
+            fixture.setUp();
+            CodeColorOptions.getInstance().singlePassHighlighting = false;
+            file = fixture.configureByText("benchmark.php", new PhpCorpusGenerator(42, 0.1, 0.1).generate(lines));
+        });
+        elements = ReadAction.compute(() -> HighlightingTestUtil.elements(file));
+        table = CodeColorOptions.getInstance().getKeywordTable();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        EdtTestUtil.runInEdtAndWait(() -> fixture.tearDown());
+    }
+
+    @Benchmark
+    public void scan(final Blackhole blackhole) {
+        ReadAction.run(() -> FileKeywordScanner.scan(file, table, (startOffset, endOffset, category) -> blackhole.consume(category)));
+    }
+
+    @Benchmark
+    public int annotate() {
+        return ReadAction.compute(() -> HighlightingTestUtil.annotate(file, elements).size());
+    }
+}
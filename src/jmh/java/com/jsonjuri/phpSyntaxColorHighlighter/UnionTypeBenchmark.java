@@ -0,0 +1,76 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scans a signature whose parameter and return types are unions of growing size. The time per member should
+ * stay flat, since each member is classified once from the scanner state.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("HardCodedStringLiteral")
+public class UnionTypeBenchmark {
+    @Param({"1", "4", "16", "64", "256"})
+    public int unionSize;
+
+    private String source;
+    private TextKeywordScanner scanner;
+
+    @Setup
+    public void setUp() {
+        final StringBuilder union = new StringBuilder();
+        for (int i = 0; i < unionSize; i++) {
+            if (i > 0) {
+                union.append(i % 4 == 0 ? "|(" : "|");
+            }
+            union.append("Type").append(i);
+            if (i % 4 == 0 && i > 0) {
+                union.append("&Marker)");
+            }
+        }
+        source = "<?php\nfunction f(" + union + " $value): " + union + "\n{\n    return $value;\n}\n";
+        scanner = new TextKeywordScanner();
+    }
+
+    @Benchmark
+    public void scan(final Blackhole blackhole) {
+        scanner.scan(source, (startOffset, endOffset, category) -> blackhole.consume(category));
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import com.intellij.ide.plugins.IdeaPluginDescriptor;
+import com.intellij.ide.plugins.PluginManagerCore;
+import com.intellij.lang.ASTNode;
+import com.intellij.openapi.extensions.PluginId;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectFileIndex;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.vfs.JarFileSystem;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiPolyVariantReference;
+import com.intellij.psi.PsiReference;
+import com.intellij.psi.ResolveResult;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Checks that a function call or class reference matched by name really resolves to a PHP built-in, i.e. into the
+ * stubs bundled with the PHP plugin, and not to a user function or class shadowing it ({@code App\date()}).
+ * <p>
+ * Results are cached per file, per namespace block and per name as written (with its namespace qualifier, if any), so
+ * a name is resolved once per block however many call sites it has; two {@code namespace X { }} blocks may import
+ * different functions under the same name. Edits inside code blocks cannot declare a function or class, so the cache
+ * is kept across them: it is dropped when the file itself changes, and for other files only on out-of-code-block
+ * changes, on added, moved or deleted files and on project root changes. In dumb mode, and for names that do not
+ * resolve at all, the text rules of {@link KeywordContext} stand.
+ */
+@SuppressWarnings("HardCodedStringLiteral")
+final class BuiltInResolver {
+    private static final Key<CachedValue<Map<String, Boolean>>> RESOLVED = Key.create("PHP_SYNTAX_COLOR_RESOLVED_BUILT_INS");
+
+    private BuiltInResolver() {
+    }
+
+    static boolean isBuiltIn(@NotNull final ASTNode leaf) {
+        final ASTNode parent = leaf.getTreeParent();
+        final PsiElement reference = parent == null ? null : parent.getPsi();
+        final PsiFile file = reference == null ? null : reference.getContainingFile();
+        if (file == null || DumbService.isDumb(file.getProject())) {
+            return true;
+        }
+
+        final Map<String, Boolean> resolved = getResolved(file);
+        final int nameLength = leaf.getStartOffset() + leaf.getTextLength() - parent.getStartOffset();
+        final ASTNode namespace = enclosingNamespace(parent);
+        // The cache is dropped on any change of the file, so the offset of the block identifies it for as long as it lives
+        final String key = (namespace == null ? -1 : namespace.getStartOffset()) + ":" + parent.getChars().subSequence(0, nameLength);
+        return resolved.computeIfAbsent(key, ignored -> resolve(reference));
+    }
+
+    @Nullable
+    private static ASTNode enclosingNamespace(@NotNull final ASTNode node) {
+        for (ASTNode current = node.getTreeParent(); current != null; current = current.getTreeParent()) {
+            if (KeywordContext.kindOf(current) == KeywordContext.NAMESPACE) {
+                return current;
+            }
+        }
+        return null;
+    }
+
+    @NotNull
+    private static Map<String, Boolean> getResolved(@NotNull final PsiFile file) {
+        final Project project = file.getProject();
+        return CachedValuesManager.getCachedValue(file, RESOLVED, () -> CachedValueProvider.Result.create(
+                new ConcurrentHashMap<>(),
+                file,
+                PsiModificationTracker.SERVICE.getInstance(project).getOutOfCodeBlockModificationTracker(),
+                VirtualFileManager.VFS_STRUCTURE_MODIFICATIONS,
+                ProjectRootManager.getInstance(project)));
+    }
+
+    /**
+     * Changes of the file itself are left out: callers that keep per-file results compare the file's modification
+     * stamp anyway.
+     *
+     * @return a count that changes whenever the declarations that {@link #isBuiltIn} may resolve to change
+     */
+    static long getStructureModificationCount(@NotNull final Project project) {
+        return PsiModificationTracker.SERVICE.getInstance(project).getOutOfCodeBlockModificationTracker().getModificationCount()
+                + VirtualFileManager.VFS_STRUCTURE_MODIFICATIONS.getModificationCount()
+                + ProjectRootManager.getInstance(project).getModificationCount();
+    }
+
+    @NotNull
+    private static Boolean resolve(@NotNull final PsiElement element) {
+        final PsiReference reference = element.getReference();
+        if (reference == null) {
+            return Boolean.TRUE;
+        }
+
+        boolean resolvedAny = false;
+        if (reference instanceof PsiPolyVariantReference) {
+            for (final ResolveResult result : ((PsiPolyVariantReference) reference).multiResolve(false)) {
+                final PsiElement target = result.getElement();
+                if (target != null) {
+                    if (isStub(element.getProject(), target)) {
+                        return Boolean.TRUE;
+                    }
+                    resolvedAny = true;
+                }
+            }
+        } else {
+            final PsiElement target = reference.resolve();
+            if (target != null) {
+                if (isStub(element.getProject(), target)) {
+                    return Boolean.TRUE;
+                }
+                resolvedAny = true;
+            }
+        }
+        return !resolvedAny;
+    }
+
+    // The PHP plugin declares built-ins in .php stubs inside its own jars; a project directory named "stubs" is user code
+    private static boolean isStub(@NotNull final Project project, @NotNull final PsiElement target) {
+        final PsiFile file = target.getContainingFile();
+        final VirtualFile virtualFile = file == null ? null : file.getVirtualFile();
+        if (virtualFile == null || ProjectFileIndex.getInstance(project).isInContent(virtualFile)) {
+            return false;
+        }
+        final VirtualFile jar = JarFileSystem.getInstance().getVirtualFileForJar(virtualFile);
+        final String pluginPath = PhpPlugin.PATH;
+        if (pluginPath == null) {
+            return jar != null && virtualFile.getUrl().contains("/stubs/");
+        }
+        return FileUtil.isAncestor(pluginPath, (jar != null ? jar : virtualFile).getPath(), false);
+    }
+
+    private static final class PhpPlugin {
+        @Nullable
+        static final String PATH = findPath();
+
+        @Nullable
+        private static String findPath() {
+            final IdeaPluginDescriptor plugin = PluginManagerCore.getPlugin(PluginId.getId("com.jetbrains.php"));
+            return plugin == null || plugin.getPluginPath() == null ? null : plugin.getPluginPath().toString();
+        }
+    }
+}
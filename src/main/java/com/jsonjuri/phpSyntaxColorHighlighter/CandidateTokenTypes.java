@@ -0,0 +1,148 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import com.intellij.lang.ASTNode;
+import com.intellij.lang.LanguageParserDefinitions;
+import com.intellij.lang.ParserDefinition;
+import com.intellij.psi.PsiComment;
+import com.intellij.psi.TokenType;
+import com.intellij.psi.tree.IElementType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Per-{@link IElementType} verdict tables, indexed by {@link IElementType#getIndex()}.
+ * <p>
+ * {@link #isCandidate} tells whether a leaf of a given token type can ever be a keyword: only identifiers and the
+ * keyword tokens of built-in words are, so whitespace, comments, string literals, variables, numbers and operators
+ * are rejected with a single array read. {@link #isTrivia} tells whether a leaf is
+ * whitespace or a comment, which token-level scanners skip. {@link #isComment} tells whether a
+ * composite node is a comment (a doc comment), so whole-file walks can step over it without descending.
+ * {@link #isIdentifier} tells plain names apart from keyword tokens, which need no context to be classified.
+ * The verdict for a type is worked out the first time it is seen and kept for the lifetime of the IDE.
+ */
+final class CandidateTokenTypes {
+    private static final Verdicts CANDIDATES = new Verdicts();
+    private static final Verdicts TRIVIA = new Verdicts();
+    private static final Verdicts COMMENTS = new Verdicts();
+    private static final Verdicts IDENTIFIERS = new Verdicts();
+
+    private CandidateTokenTypes() {
+    }
+
+    static boolean isCandidate(@NotNull final IElementType type) {
+        final byte verdict = CANDIDATES.get(type);
+        if (verdict != Verdicts.UNKNOWN) {
+            return verdict == Verdicts.YES;
+        }
+        return CANDIDATES.record(type, computeCandidate(type));
+    }
+
+    static boolean isTrivia(@NotNull final IElementType type) {
+        final byte verdict = TRIVIA.get(type);
+        if (verdict != Verdicts.UNKNOWN) {
+            return verdict == Verdicts.YES;
+        }
+        return TRIVIA.record(type, computeTrivia(type));
+    }
+
+    static boolean isComment(@NotNull final ASTNode node) {
+        final IElementType type = node.getElementType();
+        final byte verdict = COMMENTS.get(type);
+        if (verdict != Verdicts.UNKNOWN) {
+            return verdict == Verdicts.YES;
+        }
+        return COMMENTS.record(type, node.getPsi() instanceof PsiComment);
+    }
+
+    static boolean isIdentifier(@NotNull final IElementType type) {
+        final byte verdict = IDENTIFIERS.get(type);
+        if (verdict != Verdicts.UNKNOWN) {
+            return verdict == Verdicts.YES;
+        }
+        return IDENTIFIERS.record(type, type.toString().toLowerCase(Locale.ROOT).contains("identifier"));
+    }
+
+    private static boolean computeTrivia(@NotNull final IElementType type) {
+        if (type == TokenType.WHITE_SPACE) {
+            return true;
+        }
+
+        final ParserDefinition definition = LanguageParserDefinitions.INSTANCE.forLanguage(type.getLanguage());
+        return definition != null && (definition.getWhitespaceTokens().contains(type) || definition.getCommentTokens().contains(type));
+    }
+
+    private static boolean computeCandidate(@NotNull final IElementType type) {
+        if (type == TokenType.WHITE_SPACE || type == TokenType.BAD_CHARACTER) {
+            return false;
+        }
+
+        final ParserDefinition definition = LanguageParserDefinitions.INSTANCE.forLanguage(type.getLanguage());
+        if (definition != null && (definition.getWhitespaceTokens().contains(type)
+                || definition.getCommentTokens().contains(type)
+                || definition.getStringLiteralElements().contains(type))) {
+            return false;
+        }
+
+        // Identifier tokens are candidates, and keyword tokens that are named after a built-in word, such as
+        // `function` or `return`. Variables, numbers and operators have names of their own (`VARIABLE`, `integer`,
+        // `arrow`), so they are not, and user-defined words only ever match identifiers
+        return isIdentifier(type) || KeywordTable.builtIns().categoryOf(type.toString()) != KeywordTable.NOT_FOUND;
+    }
+
+    private static final class Verdicts {
+        static final byte UNKNOWN = 0;
+        static final byte YES = 1;
+        static final byte NO = 2;
+
+        private volatile byte[] table = new byte[1024];
+
+        byte get(@NotNull final IElementType type) {
+            final short index = type.getIndex();
+            final byte[] verdicts = table;
+            return index >= 0 && index < verdicts.length ? verdicts[index] : UNKNOWN;
+        }
+
+        synchronized boolean record(@NotNull final IElementType type, final boolean verdict) {
+            final short index = type.getIndex();
+            if (index < 0) {
+                return verdict;
+            }
+
+            byte[] verdicts = table;
+            if (index >= verdicts.length) {
+                verdicts = Arrays.copyOf(verdicts, Math.max(verdicts.length * 2, index + 1));
+            }
+            verdicts[index] = verdict ? YES : NO;
+            table = verdicts;
+            return verdict;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Reusable view of one token of a larger text, so lookups never need a substring.
+ */
+final class CharWindow implements CharSequence {
+    private CharSequence text = "";
+    private int start;
+    private int length;
+
+    @NotNull
+    CharWindow set(@NotNull final CharSequence text, final int start, final int end) {
+        this.text = text;
+        this.start = start;
+        this.length = end - start;
+        return this;
+    }
+
+    void clear() {
+        set("", 0, 0);
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(final int index) {
+        return text.charAt(start + index);
+    }
+
+    @Override
+    public @NotNull CharSequence subSequence(final int from, final int to) {
+        return text.subSequence(start + from, start + to);
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return text.subSequence(start, start + length).toString();
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import com.intellij.codeHighlighting.TextEditorHighlightingPass;
+import com.intellij.codeInsight.daemon.impl.HighlightInfo;
+import com.intellij.codeInsight.daemon.impl.HighlightInfoType;
+import com.intellij.codeInsight.daemon.impl.UpdateHighlightersUtil;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.editor.colors.EditorColorsScheme;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiFile;
+import com.jsonjuri.phpSyntaxColorHighlighter.settings.CodeColorOptions;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Highlights the keywords of a whole PHP file in one walk and applies them to the editor in one batch.
+ * <p>
+ * Classification goes through the file's {@link KeywordHighlightCache}, so only the dirty range is classified
+ * again and only the highlighters inside it are replaced. When the cache has to catch up with more than what is on
+ * screen, the visible ranges of the document's editors are classified and applied first, before the rest.
+ */
+final class CodeColorHighlightingPass extends TextEditorHighlightingPass {
+    private static final Logger LOG = Logger.getInstance(CodeColorHighlightingPass.class);
+
+    // One immutable info type per category carries both the severity and the attributes key
+    private static final HighlightInfoType[] INFO_TYPES = createInfoTypes();
+
+    private final PsiFile file;
+    private final TextRange dirtyRange;
+    private final EditorColorsScheme colorsScheme;
+    private final List<TextRange> visibleRanges;
+    private final ModalityState modality;
+    private final List<HighlightInfo> highlights = new ArrayList<>();
+    private TextRange appliedRange;
+
+    CodeColorHighlightingPass(@NotNull final PsiFile file,
+                              @NotNull final Editor editor,
+                              @NotNull final TextRange dirtyRange,
+                              @NotNull final List<TextRange> visibleRanges) {
+        super(file.getProject(), editor.getDocument(), false);
+        this.file = file;
+        this.dirtyRange = dirtyRange;
+        this.colorsScheme = editor.getColorsScheme();
+        this.visibleRanges = visibleRanges;
+        this.modality = ModalityState.stateForComponent(editor.getComponent());
+    }
+
+    @Override
+    public void doCollectInformation(@NotNull final ProgressIndicator progress) {
+        // Files that are not highlighted lose the highlighters they had
+        if (CodeColorOptions.getInstance().isEveryCategoryDisabled() || LargeFiles.getLevel(file) == HighlightingLevel.OFF) {
+            appliedRange = new TextRange(0, myDocument.getTextLength());
+            return;
+        }
+
+        final long start = System.nanoTime();
+        if (!KeywordHighlightCache.isUpToDate(file)) {
+            highlightVisibleRanges();
+        }
+
+        final KeywordHighlightCache cache = KeywordHighlightCache.update(file, dirtyRange);
+        HighlightMemory.checkBudget(file, cache);
+        appliedRange = dirtyRange.union(cache.getChangedRange());
+        cache.forEach(appliedRange.getStartOffset(), appliedRange.getEndOffset(), new Collector(highlights, 0, Integer.MAX_VALUE));
+        record(System.nanoTime() - start);
+    }
+
+    // Classifies the visible part of the dirty range straight from the tree and applies it as soon as possible
+    private void highlightVisibleRanges() {
+        final KeywordTable table = LargeFiles.getKeywordTable(file);
+        final long documentStamp = myDocument.getModificationStamp();
+        for (final TextRange visible : visibleRanges) {
+            final TextRange range = visible.intersection(dirtyRange);
+            if (range == null || range.isEmpty() || range.equals(dirtyRange)) {
+                continue;
+            }
+
+            final List<HighlightInfo> visibleHighlights = new ArrayList<>();
+            FileKeywordScanner.scan(file, range.getStartOffset(), range.getEndOffset(), table,
+                    new Collector(visibleHighlights, range.getStartOffset(), range.getEndOffset()));
+
+            ApplicationManager.getApplication().invokeLater(() -> {
+                if (myDocument.getModificationStamp() == documentStamp) {
+                    UpdateHighlightersUtil.setHighlightersToEditor(myProject, myDocument,
+                            range.getStartOffset(), range.getEndOffset(), visibleHighlights, colorsScheme, getId());
+                }
+            }, modality, myProject.getDisposed());
+        }
+    }
+
+    // Turns the keywords within [startOffset, endOffset) into highlights. With lexer highlighting on, identifiers are
+    // colored by the editor highlighter; types and doc tags are left here
+    private static final class Collector implements KeywordSink {
+        private static final int TYPE_CATEGORY = KeywordCategory.PHP_RETURN_TYPE.ordinal();
+
+        private final List<HighlightInfo> target;
+        private final int startOffset;
+        private final int endOffset;
+        private final boolean typesOnly = CodeColorOptions.getInstance().lexerHighlighting;
+
+        Collector(@NotNull final List<HighlightInfo> target, final int startOffset, final int endOffset) {
+            this.target = target;
+            this.startOffset = startOffset;
+            this.endOffset = endOffset;
+        }
+
+        @Override
+        public void accept(final int start, final int end, final int category) {
+            if (!typesOnly || category == TYPE_CATEGORY) {
+                add(start, end, category);
+            }
+        }
+
+        @Override
+        public void acceptDocTag(final int start, final int end, final int category) {
+            add(start, end, category);
+        }
+
+        private void add(final int start, final int end, final int category) {
+            if (start < startOffset || end > endOffset) {
+                return;
+            }
+            final HighlightInfo info = HighlightInfo.newHighlightInfo(INFO_TYPES[category])
+                    .range(start, end)
+                    .create();
+            if (info != null) {
+                target.add(info);
+            }
+        }
+    }
+
+    private void record(final long nanos) {
+        HighlightingStats.recordFirstFile(nanos);
+        if (HighlightingStats.isEnabled()) {
+            HighlightingStats.recordPass(nanos);
+        }
+
+        final CodeColorOptions options = CodeColorOptions.getInstance();
+        if (options.logSlowFiles && nanos >= options.slowFileThresholdMs * 1_000_000L) {
+            final String path = file.getVirtualFile() == null ? file.getName() : file.getVirtualFile().getPath();
+            LOG.info(path + ": keyword highlighting of " + appliedRange + " took " + nanos / 1_000_000 + " ms");
+        }
+    }
+
+    @NotNull
+    private static HighlightInfoType[] createInfoTypes() {
+        final KeywordCategory[] categories = KeywordCategory.values();
+        final HighlightInfoType[] types = new HighlightInfoType[categories.length];
+        for (final KeywordCategory category : categories) {
+            types[category.ordinal()] = new HighlightInfoType.HighlightInfoTypeImpl(HighlightInfoType.SYMBOL_TYPE_SEVERITY,
+                    CodeColorKeys.of(category));
+        }
+        return types;
+    }
+
+    @Override
+    public void doApplyInformationToEditor() {
+        UpdateHighlightersUtil.setHighlightersToEditor(myProject, myDocument,
+                appliedRange.getStartOffset(), appliedRange.getEndOffset(), highlights, colorsScheme, getId());
+    }
+}
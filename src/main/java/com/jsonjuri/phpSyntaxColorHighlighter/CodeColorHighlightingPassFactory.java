@@ -0,0 +1,97 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import com.intellij.codeHighlighting.DirtyScopeTrackingHighlightingPassFactory;
+import com.intellij.codeHighlighting.TextEditorHighlightingPass;
+import com.intellij.codeHighlighting.TextEditorHighlightingPassFactoryRegistrar;
+import com.intellij.codeHighlighting.TextEditorHighlightingPassRegistrar;
+import com.intellij.codeInsight.daemon.impl.FileStatusMap;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.editor.EditorFactory;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiFile;
+import com.jsonjuri.phpSyntaxColorHighlighter.settings.CodeColorOptions;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class CodeColorHighlightingPassFactory implements DirtyScopeTrackingHighlightingPassFactory, TextEditorHighlightingPassFactoryRegistrar {
+    private int passId;
+
+    @Override
+    public void registerHighlightingPassFactory(@NotNull final TextEditorHighlightingPassRegistrar registrar, @NotNull final Project project) {
+        passId = registrar.registerTextEditorHighlightingPass(this, null, null, false, -1);
+    }
+
+    @Override
+    public int getPassId() {
+        return passId;
+    }
+
+    @Override
+    public @Nullable TextEditorHighlightingPass createHighlightingPass(@NotNull final PsiFile file, @NotNull final Editor editor) {
+        if (!CodeColorOptions.getInstance().singlePassHighlighting) {
+            return null;
+        }
+
+        final PsiFile phpFile = FileKeywordScanner.getPhpFile(file);
+        if (phpFile == null) {
+            return null;
+        }
+
+        final TextRange dirtyRange = FileStatusMap.getDirtyTextRange(editor, passId);
+        return dirtyRange == null ? null : new CodeColorHighlightingPass(phpFile, editor, dirtyRange, getVisibleRanges(editor));
+    }
+
+    // Runs on the EDT, where the editors' scrolling positions are consistent
+    @NotNull
+    private static List<TextRange> getVisibleRanges(@NotNull final Editor editor) {
+        final List<TextRange> ranges = new ArrayList<>();
+        for (final Editor documentEditor : EditorFactory.getInstance().getEditors(editor.getDocument(), editor.getProject())) {
+            final Rectangle area = documentEditor.getScrollingModel().getVisibleArea();
+            if (area.isEmpty()) {
+                continue;
+            }
+
+            final Document document = documentEditor.getDocument();
+            final int firstLine = documentEditor.xyToLogicalPosition(area.getLocation()).line;
+            final int lastLine = documentEditor.xyToLogicalPosition(new Point(area.x, area.y + area.height)).line;
+            if (firstLine >= document.getLineCount()) {
+                continue;
+            }
+            ranges.add(new TextRange(document.getLineStartOffset(firstLine),
+                    document.getLineEndOffset(Math.min(lastLine, document.getLineCount() - 1))));
+        }
+        return ranges;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import com.intellij.openapi.editor.DefaultLanguageHighlighterColors;
+import com.intellij.openapi.editor.colors.TextAttributesKey;
+import com.intellij.util.ObjectUtils;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Text attributes keys of the keyword categories.
+ * <p>
+ * The keys are registered when this class is first used, i.e. when the first PHP file is highlighted or the color
+ * settings page is opened, rather than when the annotator or the settings classes are loaded.
+ */
+@SuppressWarnings("HardCodedStringLiteral")
+public final class CodeColorKeys {
+    private static final long INIT_START = System.nanoTime();
+
+    public static final TextAttributesKey PHP_KEYWORD = ObjectUtils.notNull(TextAttributesKey.find("PHP_KEYWORD"), DefaultLanguageHighlighterColors.KEYWORD);
+    public static final TextAttributesKey PHP_RETURN = TextAttributesKey.createTextAttributesKey("PHP_RETURN", PHP_KEYWORD);
+    public static final TextAttributesKey MODIFIER = TextAttributesKey.createTextAttributesKey("PHP.MODIFIER", PHP_KEYWORD);
+    public static final TextAttributesKey STATIC_FINAL = TextAttributesKey.createTextAttributesKey("PHP.STATIC_FINAL", PHP_KEYWORD);
+    public static final TextAttributesKey THIS_SELF = TextAttributesKey.createTextAttributesKey("PHP.THIS_SELF", PHP_KEYWORD);
+    public static final TextAttributesKey USE_NAMESPACE = TextAttributesKey.createTextAttributesKey("PHP.USE_NAMESPACE", PHP_KEYWORD);
+    public static final TextAttributesKey FUNCTION = TextAttributesKey.createTextAttributesKey("PHP.FUNCTION", PHP_KEYWORD);
+    public static final TextAttributesKey PHP_HANDLING_FUNCTION = TextAttributesKey.createTextAttributesKey("PHP_HANDLING_FUNCTION", PHP_KEYWORD);
+    public static final TextAttributesKey PHP_STRING_FUNCTION = TextAttributesKey.createTextAttributesKey("PHP_STRING_FUNCTION", PHP_KEYWORD);
+    public static final TextAttributesKey PHP_ARRAY_FUNCTION = TextAttributesKey.createTextAttributesKey("PHP_ARRAY_FUNCTION", PHP_KEYWORD);
+    public static final TextAttributesKey PHP_OBJECT_FUNCTION = TextAttributesKey.createTextAttributesKey("PHP_OBJECT_FUNCTION", PHP_KEYWORD);
+    public static final TextAttributesKey PHP_MISC_FUNCTION = TextAttributesKey.createTextAttributesKey("PHP_MISC_FUNCTION", PHP_KEYWORD);
+    public static final TextAttributesKey PHP_JSON_FUNCTION = TextAttributesKey.createTextAttributesKey("PHP_JSON_FUNCTION", PHP_KEYWORD);
+    public static final TextAttributesKey PHP_MATH_FUNCTION = TextAttributesKey.createTextAttributesKey("PHP_MATH_FUNCTION", PHP_KEYWORD);
+    public static final TextAttributesKey PHP_HANDLER_FUNCTION = TextAttributesKey.createTextAttributesKey("PHP_HANDLER_FUNCTION", PHP_KEYWORD);
+    public static final TextAttributesKey PHP_TRUE_KEYWORD = TextAttributesKey.createTextAttributesKey("PHP_TRUE_KEYWORD", PHP_KEYWORD);
+    public static final TextAttributesKey PHP_FALSE_KEYWORD = TextAttributesKey.createTextAttributesKey("PHP_FALSE_KEYWORD", PHP_KEYWORD);
+    public static final TextAttributesKey PHP_NULL_KEYWORD = TextAttributesKey.createTextAttributesKey("PHP_NULL_KEYWORD", PHP_KEYWORD);
+    public static final TextAttributesKey PHP_PREG = TextAttributesKey.createTextAttributesKey("PHP_PREG", PHP_KEYWORD);
+    public static final TextAttributesKey PHP_DATE = TextAttributesKey.createTextAttributesKey("PHP_DATE", PHP_KEYWORD);
+    public static final TextAttributesKey PHP_DEBUG = TextAttributesKey.createTextAttributesKey("PHP_DEBUG", PHP_KEYWORD);
+    public static final TextAttributesKey PHP_SUCCESS = TextAttributesKey.createTextAttributesKey("PHP_SUCCESS", PHP_KEYWORD);
+    public static final TextAttributesKey PHP_ERROR = TextAttributesKey.createTextAttributesKey("PHP_ERROR", PHP_KEYWORD);
+
+    public static final TextAttributesKey PHPDOC_INTERNAL = TextAttributesKey.createTextAttributesKey("PHPDOC_INTERNAL", DefaultLanguageHighlighterColors.DOC_COMMENT_TAG);
+    public static final TextAttributesKey PHP_RETURN_TYPE = TextAttributesKey.createTextAttributesKey("PHP_RETURN_TYPE", PHP_KEYWORD);
+
+    private static final TextAttributesKey[] CATEGORY_KEYS = {
+            MODIFIER,
+            STATIC_FINAL,
+            THIS_SELF,
+            USE_NAMESPACE,
+            FUNCTION,
+            PHP_RETURN,
+            PHP_HANDLING_FUNCTION,
+            PHP_TRUE_KEYWORD,
+            PHP_FALSE_KEYWORD,
+            PHP_NULL_KEYWORD,
+            PHP_STRING_FUNCTION,
+            PHP_ARRAY_FUNCTION,
+            PHP_OBJECT_FUNCTION,
+            PHP_MISC_FUNCTION,
+            PHP_JSON_FUNCTION,
+            PHP_MATH_FUNCTION,
+            PHP_HANDLER_FUNCTION,
+            PHP_PREG,
+            PHP_DATE,
+            PHP_SUCCESS,
+            PHP_ERROR,
+            PHP_DEBUG,
+            PHP_RETURN_TYPE,
+            PHPDOC_INTERNAL
+    };
+
+    static {
+        HighlightingStats.recordInitialization("Text attributes keys", System.nanoTime() - INIT_START);
+    }
+
+    private CodeColorKeys() {
+    }
+
+    @NotNull
+    public static TextAttributesKey of(@NotNull final KeywordCategory category) {
+        return CATEGORY_KEYS[category.ordinal()];
+    }
+
+    @NotNull
+    static TextAttributesKey of(final int category) {
+        return CATEGORY_KEYS[category];
+    }
@@ -0,0 +1,108 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiComment;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiRecursiveElementWalkingVisitor;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Sorted offsets of the composite comments (doc comments) of a file, built once per file modification.
+ * <p>
+ * Answers "is this offset inside a comment" with a binary search over the comments of the file instead of
+ * walking the parents of every leaf up to the file root.
+ */
+final class CommentRanges {
+    private static final CommentRanges EMPTY = new CommentRanges(new int[0], new int[0], 0);
+
+    private final int[] starts;
+    private final int[] ends;
+    private final int size;
+
+    private CommentRanges(@NotNull final int[] starts, @NotNull final int[] ends, final int size) {
+        this.starts = starts;
+        this.ends = ends;
+        this.size = size;
+    }
+
+    @NotNull
+    static CommentRanges of(@NotNull final PsiFile file) {
+        return CachedValuesManager.getCachedValue(file, () -> CachedValueProvider.Result.create(build(file), file));
+    }
+
+    boolean contains(final int offset) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            if (starts[middle] > offset) {
+                high = middle - 1;
+            } else if (ends[middle] <= offset) {
+                low = middle + 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @NotNull
+    private static CommentRanges build(@NotNull final PsiFile file) {
+        final int[][] ranges = {new int[16], new int[16]};
+        final int[] size = {0};
+
+        file.accept(new PsiRecursiveElementWalkingVisitor() {
+            @Override
+            public void visitElement(@NotNull final PsiElement element) {
+                if (element instanceof PsiComment) {
+                    // Leaf comments are rejected by their token type already
+                    if (element.getFirstChild() != null) {
+                        final TextRange range = element.getTextRange();
+                        if (size[0] == ranges[0].length) {
+                            ranges[0] = Arrays.copyOf(ranges[0], size[0] * 2);
+                            ranges[1] = Arrays.copyOf(ranges[1], size[0] * 2);
+                        }
+                        ranges[0][size[0]] = range.getStartOffset();
+                        ranges[1][size[0]] = range.getEndOffset();
+                        size[0]++;
+                    }
+                    return;
+                }
+                super.visitElement(element);
+            }
+        });
+
+        return size[0] == 0 ? EMPTY : new CommentRanges(ranges[0], ranges[1], size[0]);
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Locale;
+
+/**
+ * User-defined identifiers, one {@code name = CATEGORY} mapping per line. Blank lines and lines starting with
+ * {@code #} are ignored.
+ * <p>
+ * Mappings are compiled together with the built-ins into one immutable {@link KeywordTable}. They are added first,
+ * so a mapping also recolors a built-in identifier of the same name. Mapped names are colored at function, method
+ * and constant references and at class references, whatever their category (see {@link KeywordContext}).
+ */
+@SuppressWarnings("HardCodedStringLiteral")
+public final class CustomKeywords {
+    private CustomKeywords() {
+    }
+
+    @NotNull
+    public static KeywordTable compile(@NotNull final String definitions) {
+        if (definitions.isBlank()) {
+            return KeywordTable.builtIns();
+        }
+
+        final KeywordTable.Builder builder = new KeywordTable.Builder();
+        final String[] lines = definitions.split("\n");
+        for (final String line : lines) {
+            final int separator = line.indexOf('=');
+            if (isComment(line) || separator < 0) {
+                continue;
+            }
+            final String name = line.substring(0, separator).trim();
+            final KeywordCategory category = findCategory(line.substring(separator + 1).trim());
+            if (isName(name) && category != null) {
+                builder.addUserDefined(name, category);
+            }
+        }
+        return KeywordTable.addBuiltIns(builder).build();
+    }
+
+    /**
+     * @return a description of the first line that cannot be compiled, or {@code null} if all of them can
+     */
+    @Nullable
+    public static String findError(@NotNull final String definitions) {
+        final String[] lines = definitions.split("\n");
+        for (int i = 0; i < lines.length; i++) {
+            final String line = lines[i];
+            if (isComment(line)) {
+                continue;
+            }
+
+            final int separator = line.indexOf('=');
+            if (separator < 0) {
+                return "Line " + (i + 1) + ": expected 'name = CATEGORY'";
+            }
+            final String name = line.substring(0, separator).trim();
+            if (!isName(name)) {
+                return "Line " + (i + 1) + ": '" + name + "' is not a PHP identifier";
+            }
+            final String category = line.substring(separator + 1).trim();
+            if (findCategory(category) == null) {
+                return "Line " + (i + 1) + ": unknown category '" + category + "'";
+            }
+        }
+        return null;
+    }
+
+    static boolean isComment(@NotNull final String line) {
+        final String trimmed = line.trim();
+        return trimmed.isEmpty() || trimmed.startsWith("#");
+    }
+
+    private static boolean isName(@NotNull final String name) {
+        if (name.isEmpty() || Character.isDigit(name.charAt(0))) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            if (c != '_' && c < 0x80 && !Character.isLetterOrDigit(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Categories are named as in the color settings; type declarations are positional and cannot be mapped
+    @Nullable
+    static KeywordCategory findCategory(@NotNull final String name) {
+        final String normalized = name.toUpperCase(Locale.ROOT);
+        for (final KeywordCategory category : KeywordCategory.values()) {
+            if (category != KeywordCategory.PHP_RETURN_TYPE && category.name().equals(normalized)) {
+                return category;
+            }
+        }
+        return null;
+    }
+}
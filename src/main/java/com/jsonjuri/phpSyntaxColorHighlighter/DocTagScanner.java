@@ -0,0 +1,87 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Finds PHPDoc tags ({@code @param}, {@code @deprecated}, {@code {@inheritDoc}}) in the text of a doc comment.
+ * <p>
+ * One pass over the chars, with no doc-tag PSI and no substrings: an {@code @} starts a tag when it opens the
+ * comment text or follows whitespace, {@code *} or {@code {}, and the tag name runs while the chars can belong to
+ * one. Names are looked up through a reused {@link CharWindow}, so an {@code @} in an e-mail address costs one
+ * char comparison and a large generated docblock costs its length.
+ */
+final class DocTagScanner {
+    private final CharWindow window = new CharWindow();
+
+    /**
+     * Reports the tags of {@code text} within {@code [start, end)} that {@code tags} classifies. The table holds
+     * tag names without the {@code @}; reported ranges include it. Tags go to {@link KeywordSink#acceptDocTag}.
+     */
+    void scan(@NotNull final CharSequence text,
+              final int start,
+              final int end,
+              @NotNull final KeywordTable tags,
+              @NotNull final KeywordSink sink) {
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) != '@' || (i > start && !isTagStart(text.charAt(i - 1)))) {
+                continue;
+            }
+
+            int nameEnd = i + 1;
+            while (nameEnd < end && isTagChar(text.charAt(nameEnd))) {
+                nameEnd++;
+            }
+            if (nameEnd > i + 1) {
+                final int category = tags.categoryOf(window.set(text, i + 1, nameEnd));
+                if (category != KeywordTable.NOT_FOUND) {
+                    sink.acceptDocTag(i, nameEnd, category);
+                }
+            }
+            i = nameEnd - 1;
+        }
+        window.clear();
+    }
+
+    /**
+     * @return whether {@code text} from {@code start} opens a doc comment
+     */
+    static boolean isDocComment(@NotNull final CharSequence text, final int start, final int end) {
+        return end - start >= 5 && text.charAt(start) == '/' && text.charAt(start + 1) == '*' && text.charAt(start + 2) == '*'
+                && text.charAt(start + 3) != '/';
+    }
+
+    private static boolean isTagStart(final char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '*' || c == '{';
+    }
+
+    // Letters, digits and the separators of vendor tags such as @psalm-return or @ORM\Column
+    private static boolean isTagChar(final char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '-' || c == '\\';
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * PHPDoc tag to category mappings, one {@code tag = CATEGORY} per line, with or without the {@code @}. Blank lines
+ * and lines starting with {@code #} are ignored.
+ * <p>
+ * Mappings are added before the built-in tags, which all map to {@link KeywordCategory#PHPDOC_INTERNAL}, so a
+ * mapping also recolors a built-in tag ({@code deprecated = PHP_ERROR}).
+ */
+@SuppressWarnings("HardCodedStringLiteral")
+public final class DocTags {
+    private static final String[] BUILT_IN_TAGS = {
+            "api", "author", "copyright", "deprecated", "example", "filesource", "global", "ignore", "inheritDoc",
+            "inheritdoc", "internal", "license", "link", "method", "mixin", "package", "param", "property",
+            "property-read", "property-write", "return", "see", "since", "source", "subpackage", "template", "throws",
+            "todo", "uses", "used-by", "var", "version"
+    };
+
+    private DocTags() {
+    }
+
+    @NotNull
+    public static KeywordTable compile(@NotNull final String definitions) {
+        if (definitions.isBlank()) {
+            return builtIns();
+        }
+
+        final KeywordTable.Builder builder = new KeywordTable.Builder();
+        for (final String line : definitions.split("\n")) {
+            final int separator = line.indexOf('=');
+            if (CustomKeywords.isComment(line) || separator < 0) {
+                continue;
+            }
+            final String tag = stripAt(line.substring(0, separator).trim());
+            final KeywordCategory category = CustomKeywords.findCategory(line.substring(separator + 1).trim());
+            if (isTag(tag) && category != null) {
+                builder.add(tag, category);
+            }
+        }
+        return addBuiltIns(builder).build(false);
+    }
+
+    /**
+     * @return a description of the first line that cannot be compiled, or {@code null} if all of them can
+     */
+    @Nullable
+    public static String findError(@NotNull final String definitions) {
+        final String[] lines = definitions.split("\n");
+        for (int i = 0; i < lines.length; i++) {
+            final String line = lines[i];
+            if (CustomKeywords.isComment(line)) {
+                continue;
+            }
+
+            final int separator = line.indexOf('=');
+            if (separator < 0) {
+                return "Line " + (i + 1) + ": expected 'tag = CATEGORY'";
+            }
+            final String tag = stripAt(line.substring(0, separator).trim());
+            if (!isTag(tag)) {
+                return "Line " + (i + 1) + ": '" + tag + "' is not a PHPDoc tag name";
+            }
+            final String category = line.substring(separator + 1).trim();
+            if (CustomKeywords.findCategory(category) == null) {
+                return "Line " + (i + 1) + ": unknown category '" + category + "'";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the table of the built-in tags
+     */
+    @NotNull
+    public static KeywordTable builtIns() {
+        return BuiltIns.TABLE;
+    }
+
+    @NotNull
+    private static KeywordTable.Builder addBuiltIns(@NotNull final KeywordTable.Builder builder) {
+        for (final String tag : BUILT_IN_TAGS) {
+            builder.add(tag, KeywordCategory.PHPDOC_INTERNAL);
+        }
+        return builder;
+    }
+
+    @NotNull
+    private static String stripAt(@NotNull final String tag) {
+        return tag.startsWith("@") ? tag.substring(1) : tag;
+    }
+
+    private static boolean isTag(@NotNull final String tag) {
+        if (tag.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < tag.length(); i++) {
+            final char c = tag.charAt(i);
+            if (c != '_' && c != '-' && c != '\\' && (c >= 0x80 || !Character.isLetterOrDigit(c))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class BuiltIns {
+        static final KeywordTable TABLE = addBuiltIns(new KeywordTable.Builder()).build(false);
+    }
+}
@@ -0,0 +1,340 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import com.intellij.lang.ASTNode;
+import com.intellij.lang.Language;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.impl.source.tree.LeafElement;
+import com.intellij.psi.impl.source.tree.TreeUtil;
+import com.intellij.psi.tree.IElementType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Walks the PHP tree of a file once from the root and reports every keyword leaf with its offsets.
+ * <p>
+ * Offsets are accumulated while walking, so no leaf has to compute its text range, and doc comments are
+ * stepped over as a whole instead of being checked leaf by leaf. Every significant leaf is also fed to a
+ * {@link TypeDeclarationScanner}; names in type declarations are reported as {@link KeywordCategory#PHP_RETURN_TYPE}.
+ * Table matches are only reported where {@link KeywordContext} accepts them.
+ */
+public final class FileKeywordScanner {
+    private static final Logger LOG = Logger.getInstance(FileKeywordScanner.class);
+    private static final int CANCELLATION_CHECK_INTERVAL = 256;
+    // How far a ranged scan may go past either end of its range looking for a place to restart or stop
+    private static final int MAX_CONTEXT_LEAVES = 1024;
+
+    private FileKeywordScanner() {
+    }
+
+    @Nullable
+    public static PsiFile getPhpFile(@NotNull final PsiFile file) {
+        final Language php = Language.findLanguageByID("PHP");
+        return php == null ? null : file.getViewProvider().getPsi(php);
+    }
+
+    public static void scan(@NotNull final PsiFile file, @NotNull final KeywordTable table, @NotNull final KeywordSink sink) {
+        scan(file, 0, Integer.MAX_VALUE, table, sink);
+    }
+
+    /**
+     * Reports the keywords of the leaves overlapping {@code [startOffset, endOffset)}. Subtrees that end before
+     * the range are stepped over as a whole, so the cost is the size of the range plus the depth of the tree.
+     * <p>
+     * Type declarations depend on the tokens before them, so the scan starts after the closest statement or block
+     * boundary, or array element separator, before the range and goes on past its end up to the next one. A range
+     * with no such boundary in the {@value #MAX_CONTEXT_LEAVES} leaves before it is scanned from the start of the
+     * file, since starting anywhere else could miss a type declaration; past its end the scan stops after as many
+     * leaves, as the cached entries after that are still those of the previous scan.
+     *
+     * @return the range covered by the visited leaves, or {@code null} if there are none
+     */
+    @Nullable
+    public static TextRange scan(@NotNull final PsiFile file,
+                                 final int startOffset,
+                                 final int endOffset,
+                                 @NotNull final KeywordTable table,
+                                 @NotNull final KeywordSink sink) {
+        final TypeDeclarationScanner types = new TypeDeclarationScanner();
+        final boolean scanTypes = table.includesTypeDeclarations();
+        final KeywordTable docTags = table.getDocTags();
+        final DocTagScanner docTagScanner = docTags == null ? null : new DocTagScanner();
+        final CharSequence contents = file.getViewProvider().getContents();
+        final int typeCategory = KeywordCategory.PHP_RETURN_TYPE.ordinal();
+        final ASTNode root = file.getNode();
+        final int start = scanTypes ? restartOffset(root, startOffset) : startOffset;
+        final int end = Math.max(endOffset, startOffset + 1);
+
+        int visitedStart = -1;
+        int visitedEnd = -1;
+        int offset = 0;
+        int visited = 0;
+        int rejectedEarly = 0;
+        int rejectedByContext = 0;
+        int overrun = 0;
+        boolean afterSeparator = false;
+        final boolean stats = HighlightingStats.isEnabled();
+        ASTNode node = root.getFirstChildNode();
+        while (node != null) {
+            final int length = node.getTextLength();
+            if (offset >= end && (!scanTypes || types.isAtBoundary() || (afterSeparator && types.isIdle())
+                    || ++overrun > MAX_CONTEXT_LEAVES)) {
+                break;
+            }
+
+            if (offset + length <= start) {
+                offset += length;
+            } else if (node instanceof LeafElement) {
+                if (++visited % CANCELLATION_CHECK_INTERVAL == 0) {
+                    ProgressManager.checkCanceled();
+                }
+
+                final IElementType type = node.getElementType();
+                if (CandidateTokenTypes.isTrivia(type)) {
+                    rejectedEarly++;
+                    if (docTagScanner != null) {
+                        scanDocComment(contents, offset, offset + length, docTagScanner, docTags, sink);
+                    }
+                } else {
+                    final CharSequence chars = node.getChars();
+                    final boolean typeName = scanTypes && types.isType(chars);
+                    afterSeparator = scanTypes && offset >= end && isArrayElementSeparator(node);
+                    if (typeName) {
+                        sink.accept(offset, offset + length, typeCategory);
+                    } else if (CandidateTokenTypes.isCandidate(type)) {
+                        final int entry = table.entryOf(chars);
+                        if (entry != KeywordTable.NOT_FOUND) {
+                            final int category = table.categoryAt(entry);
+                            if (KeywordContext.accepts(node, table, entry)) {
+                                sink.accept(offset, offset + length, category);
+                                if (stats) {
+                                    HighlightingStats.recordMatch(category);
+                                }
+                            } else {
+                                rejectedByContext++;
+                            }
+                        }
+                    } else {
+                        rejectedEarly++;
+                    }
+                }
+                if (visitedStart < 0) {
+                    visitedStart = offset;
+                }
+                offset += length;
+                visitedEnd = offset;
+            } else if (CandidateTokenTypes.isComment(node)) {
+                if (stats) {
+                    HighlightingStats.recordCommentSkip();
+                }
+                if (docTagScanner != null) {
+                    scanDocComment(contents, offset, offset + length, docTagScanner, docTags, sink);
+                }
+                if (visitedStart < 0) {
+                    visitedStart = offset;
+                }
+                offset += length;
+                visitedEnd = offset;
+            } else {
+                final ASTNode child = node.getFirstChildNode();
+                if (child != null) {
+                    node = child;
+                    continue;
+                }
+            }
+
+            while (node.getTreeNext() == null) {
+                node = node.getTreeParent();
+                if (node == null || node == root) {
+                    node = null;
+                    break;
+                }
+            }
+            if (node != null) {
+                node = node.getTreeNext();
+            }
+        }
+
+        sink.tokensScanned(visited);
+        sink.rejectedByContext(rejectedByContext);
+        if (stats) {
+            HighlightingStats.recordLeaves(visited, rejectedEarly);
+            HighlightingStats.recordContextRejects(rejectedByContext);
+        }
+        if (rejectedByContext > 0 && LOG.isDebugEnabled()) {
+            LOG.debug(file.getName() + ": " + rejectedByContext + " keyword matches in [" + visitedStart + ", " + visitedEnd
+                    + ") not highlighted in their context");
+        }
+        return visitedStart < 0 ? null : new TextRange(visitedStart, visitedEnd);
+    }
+
+    /**
+     * Answers, one leaf at a time, whether a leaf is a name in a type declaration, for callers that see the leaves one by
+     * one, such as the annotator. The leaves are fed to a {@link TypeDeclarationScanner} from the same restart point a
+     * ranged {@link #scan} would start at, stepping over trivia and comments as the scan does. Asked about leaves in
+     * document order, the cursor goes on from the last leaf it fed, so each leaf is fed about once.
+     */
+    static final class TypeCursor {
+        private final ASTNode root;
+        @Nullable
+        private TypeDeclarationScanner types;
+        @Nullable
+        private ASTNode current;
+        private int currentStart;
+        private boolean currentIsType;
+        private int nextStart;
+
+        TypeCursor(@NotNull final ASTNode root) {
+            this.root = root;
+        }
+
+        boolean isType(@NotNull final ASTNode leaf) {
+            if (leaf == current) {
+                return currentIsType;
+            }
+            final int offset = leaf.getStartOffset();
+            ASTNode node;
+            if (types == null || current == null || offset <= currentStart) {
+                types = new TypeDeclarationScanner();
+                current = null;
+                node = first(restartOffset(root, offset));
+            } else {
+                node = next(current, currentStart + current.getTextLength());
+            }
+
+            while (node != null && nextStart <= offset) {
+                currentIsType = types.isType(node.getChars());
+                current = node;
+                currentStart = nextStart;
+                if (node == leaf) {
+                    return currentIsType;
+                }
+                node = next(node, currentStart + node.getTextLength());
+            }
+            // Not a leaf a scan feeds, e.g. a name in a doc comment
+            return false;
+        }
+
+        // The first leaf to feed at or after offset; a leaf in a comment steps over the whole comment
+        @Nullable
+        private ASTNode first(final int offset) {
+            ASTNode node = root.findLeafElementAt(offset);
+            if (node == null) {
+                return null;
+            }
+            for (ASTNode parent = node.getTreeParent(); parent != null; parent = parent.getTreeParent()) {
+                if (CandidateTokenTypes.isComment(parent)) {
+                    node = parent;
+                }
+            }
+            final int start = node.getStartOffset();
+            if (node instanceof LeafElement && !CandidateTokenTypes.isTrivia(node.getElementType())) {
+                nextStart = start;
+                return node;
+            }
+            return next(node, start + node.getTextLength());
+        }
+
+        // The next leaf to feed after node, which ends at end; sets nextStart to its offset
+        @Nullable
+        private ASTNode next(@NotNull final ASTNode from, final int fromEnd) {
+            ASTNode node = from;
+            int end = fromEnd;
+            while (true) {
+                while (node.getTreeNext() == null) {
+                    node = node.getTreeParent();
+                    if (node == null) {
+                        return null;
+                    }
+                }
+                node = node.getTreeNext();
+                ASTNode child;
+                while (!(node instanceof LeafElement) && !CandidateTokenTypes.isComment(node)
+                        && (child = node.getFirstChildNode()) != null) {
+                    node = child;
+                }
+                if (node instanceof LeafElement && !CandidateTokenTypes.isTrivia(node.getElementType())) {
+                    nextStart = end;
+                    return node;
+                }
+                end += node.getTextLength();
+            }
+        }
+    }
+
+    // Doc comments are scanned in the file text, so neither their doc-tag PSI nor their text is ever built
+    private static void scanDocComment(@NotNull final CharSequence contents,
+                                       final int start,
+                                       final int end,
+                                       @NotNull final DocTagScanner scanner,
+                                       @NotNull final KeywordTable tags,
+                                       @NotNull final KeywordSink sink) {
+        if (DocTagScanner.isDocComment(contents, start, end)) {
+            scanner.scan(contents, start, end, tags, sink);
+        }
+    }
+
+    private static int restartOffset(@NotNull final ASTNode root, final int offset) {
+        if (offset <= 0) {
+            return 0;
+        }
+
+        ASTNode leaf = root.findLeafElementAt(offset);
+        for (int walked = 0; leaf != null; walked++) {
+            leaf = TreeUtil.prevLeaf(leaf);
+            if (leaf == null) {
+                break;
+            }
+            if (walked == MAX_CONTEXT_LEAVES) {
+                return 0;
+            }
+            if (!CandidateTokenTypes.isTrivia(leaf.getElementType())
+                    && (TypeDeclarationScanner.isBoundary(leaf.getChars()) || isArrayElementSeparator(leaf))) {
+                return leaf.getStartOffset() + leaf.getTextLength();
+            }
+        }
+        return 0;
+    }
+
+    // A type declaration never spans two elements of an array, unless the array is a parameter default value
+    private static boolean isArrayElementSeparator(@NotNull final ASTNode leaf) {
+        final CharSequence chars = leaf.getChars();
+        if (chars.length() != 1 || chars.charAt(0) != ',') {
+            return false;
+        }
+        final ASTNode array = leaf.getTreeParent();
+        if (array == null || KeywordContext.kindOf(array) != KeywordContext.ARRAY) {
+            return false;
+        }
+        final ASTNode parent = array.getTreeParent();
+        return parent == null || KeywordContext.kindOf(parent) != KeywordContext.PARAMETER;
+    }
+}
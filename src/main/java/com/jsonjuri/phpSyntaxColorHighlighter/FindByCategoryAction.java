@@ -0,0 +1,148 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import com.intellij.lang.ASTNode;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.ui.popup.JBPopupFactory;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.usageView.UsageInfo;
+import com.intellij.usages.Usage;
+import com.intellij.usages.UsageInfo2UsageAdapter;
+import com.intellij.usages.UsageTarget;
+import com.intellij.usages.UsageViewManager;
+import com.intellij.usages.UsageViewPresentation;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.intellij.util.indexing.FileBasedIndex;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Lists the occurrences of a {@link KeywordCategory} in the project's PHP files, looked up in {@link KeywordCategoryIndex}
+ * and filtered through {@link KeywordContext} like the highlighter. Not dumb aware: the index is unavailable while
+ * indexing.
+ */
+@SuppressWarnings("HardCodedStringLiteral")
+public final class FindByCategoryAction extends AnAction {
+    private static final int MAX_USAGES = 5_000;
+
+    @Override
+    public void update(@NotNull final AnActionEvent e) {
+        e.getPresentation().setEnabledAndVisible(e.getProject() != null);
+    }
+
+    @Override
+    public void actionPerformed(@NotNull final AnActionEvent e) {
+        final Project project = e.getProject();
+        if (project == null) {
+            return;
+        }
+
+        JBPopupFactory.getInstance()
+                .createPopupChooserBuilder(Arrays.asList(KeywordCategory.values()))
+                .setTitle("Find by PHP Color Category")
+                .setItemChosenCallback(category -> find(project, category))
+                .createPopup()
+                .showCenteredInCurrentWindow(project);
+    }
+
+    private static void find(@NotNull final Project project, @NotNull final KeywordCategory category) {
+        ReadAction.nonBlocking(() -> collect(project, category))
+                .inSmartMode(project)
+                .expireWith(project)
+                .finishOnUiThread(ModalityState.NON_MODAL, usages -> show(project, category, usages))
+                .submit(AppExecutorUtil.getAppExecutorService());
+    }
+
+    @NotNull
+    static List<Usage> collect(@NotNull final Project project, @NotNull final KeywordCategory category) {
+        final List<Usage> usages = new ArrayList<>();
+        final PsiManager psiManager = PsiManager.getInstance(project);
+        FileBasedIndex.getInstance().processValues(KeywordCategoryIndex.NAME, category.ordinal(), null, (file, ranges) -> {
+            final PsiFile psiFile = psiManager.findFile(file);
+            if (psiFile == null) {
+                return true;
+            }
+            final int length = psiFile.getTextLength();
+            for (int i = 0; i < ranges.length && ranges[i + 1] <= length; i += 2) {
+                if (usages.size() == MAX_USAGES) {
+                    return false;
+                }
+                if (isInContext(psiFile, ranges[i], ranges[i + 1])) {
+                    usages.add(new UsageInfo2UsageAdapter(new UsageInfo(psiFile, ranges[i], ranges[i + 1])));
+                }
+            }
+            return true;
+        }, GlobalSearchScope.projectScope(project));
+        return usages;
+    }
+
+    // The index is built without context, so a name is only a usage where the highlighter would color it: not as a
+    // method of a user object, a class constant or a declaration. Doc tags, type declarations and other hits that are
+    // not a whole identifier leaf are kept.
+    private static boolean isInContext(@NotNull final PsiFile file, final int startOffset, final int endOffset) {
+        final PsiElement element = file.findElementAt(startOffset);
+        if (element == null) {
+            return false;
+        }
+        final ASTNode leaf = element.getNode();
+        if (leaf.getStartOffset() != startOffset
+                || leaf.getTextLength() != endOffset - startOffset
+                || !CandidateTokenTypes.isIdentifier(leaf.getElementType())) {
+            return true;
+        }
+        final KeywordTable table = KeywordTable.builtIns();
+        final int entry = table.entryOf(leaf.getChars());
+        return entry == KeywordTable.NOT_FOUND || KeywordContext.accepts(leaf, table, entry);
+    }
+
+    private static void show(@NotNull final Project project, @NotNull final KeywordCategory category, @NotNull final List<Usage> usages) {
+        final String name = category.name();
+        if (usages.isEmpty()) {
+            Messages.showInfoMessage(project, "No " + name + " occurrences in the project's PHP files.", "Find by PHP Color Category");
+            return;
+        }
+
+        final UsageViewPresentation presentation = new UsageViewPresentation();
+        presentation.setTabText(name);
+        presentation.setToolwindowTitle("PHP Color Category " + name);
+        presentation.setUsagesString(name + " occurrences" + (usages.size() == MAX_USAGES ? " (first " + MAX_USAGES + ")" : ""));
+        presentation.setCodeUsagesString(name + " occurrences");
+        UsageViewManager.getInstance(project).showUsages(UsageTarget.EMPTY_ARRAY, usages.toArray(Usage.EMPTY_ARRAY), presentation);
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.jsonjuri.phpSyntaxColorHighlighter.settings.CodeColorOptions;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Estimated heap held by the keyword highlights of PHP files, and the bytes-per-token budget check.
+ * <p>
+ * A highlight retains a {@code HighlightInfo} and a range highlighter with its interval tree node in the document
+ * markup model; together they are counted as {@link #BYTES_PER_HIGHLIGHT}. That figure is not measured at runtime:
+ * {@code HighlightMemoryTest} measures the retained heap of real highlights on a 64-bit JVM with compressed
+ * references and fails when it drifts from the figure. The entry arrays of the file's {@link KeywordHighlightCache}
+ * are added as they are.
+ */
+@SuppressWarnings("HardCodedStringLiteral")
+final class HighlightMemory {
+    private static final Logger LOG = Logger.getInstance(HighlightMemory.class);
+
+    static final int BYTES_PER_HIGHLIGHT = 320;
+
+    private static final Key<Boolean> OVER_BUDGET_LOGGED = Key.create("PHP_SYNTAX_COLOR_OVER_BUDGET_LOGGED");
+
+    private HighlightMemory() {
+    }
+
+    /**
+     * Logs the file once per session when its highlights exceed {@link CodeColorOptions#highlightBytesPerTokenBudget}.
+     */
+    static void checkBudget(@NotNull final PsiFile file, @NotNull final KeywordHighlightCache cache) {
+        final int budget = CodeColorOptions.getInstance().highlightBytesPerTokenBudget;
+        if (budget <= 0 || cache.getTokenCount() == 0 || file.getUserData(OVER_BUDGET_LOGGED) != null) {
+            return;
+        }
+
+        final long bytes = estimateBytes(cache, new int[KeywordCategory.values().length]);
+        if (bytes > (long) budget * cache.getTokenCount()) {
+            file.putUserData(OVER_BUDGET_LOGGED, Boolean.TRUE);
+            LOG.warn(String.format(Locale.ROOT, "%s: keyword highlights hold about %d KB, %.1f bytes per token (budget %d)",
+                    file.getName(), bytes / 1024, (double) bytes / cache.getTokenCount(), budget));
+        }
+    }
+
+    /**
+     * @return the per-file and per-category estimate for the PHP files open in the project's editors
+     */
+    @NotNull
+    static String report(@NotNull final Project project) {
+        final int budget = CodeColorOptions.getInstance().highlightBytesPerTokenBudget;
+        final long[] totalByCategory = new long[KeywordCategory.values().length];
+        final int[] counts = new int[totalByCategory.length];
+        final StringBuilder out = new StringBuilder("\nHighlight memory of open PHP files (estimated)\n");
+        long total = 0;
+
+        for (final VirtualFile virtualFile : FileEditorManager.getInstance(project).getOpenFiles()) {
+            final PsiFile psiFile = virtualFile.isValid() ? PsiManager.getInstance(project).findFile(virtualFile) : null;
+            final PsiFile phpFile = psiFile == null ? null : FileKeywordScanner.getPhpFile(psiFile);
+            final KeywordHighlightCache cache = phpFile == null ? null : KeywordHighlightCache.peek(phpFile);
+            if (cache == null) {
+                continue;
+            }
+
+            Arrays.fill(counts, 0);
+            final long bytes = estimateBytes(cache, counts);
+            final int tokens = cache.getTokenCount();
+            final double perToken = tokens == 0 ? 0.0 : (double) bytes / tokens;
+            int highlights = 0;
+            for (int category = 0; category < counts.length; category++) {
+                highlights += counts[category];
+                totalByCategory[category] += (long) counts[category] * BYTES_PER_HIGHLIGHT;
+            }
+            out.append(String.format(Locale.ROOT, "  %s: %d tokens, %d highlights, %d KB, %.1f bytes/token%s%n",
+                    virtualFile.getName(), tokens, highlights, bytes / 1024, perToken,
+                    budget > 0 && perToken > budget ? " (over budget)" : ""));
+            total += bytes;
+        }
+
+        out.append("  Total: ").append(total / 1024).append(" KB\n");
+        for (final KeywordCategory category : KeywordCategory.values()) {
+            final long bytes = totalByCategory[category.ordinal()];
+            if (bytes > 0) {
+                out.append("  ").append(category.name()).append(": ").append(bytes / 1024).append(" KB\n");
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Fills {@code counts} with the highlights per category and returns the estimated bytes of the file.
+     */
+    private static long estimateBytes(@NotNull final KeywordHighlightCache cache, @NotNull final int[] counts) {
+        cache.countCategories(counts);
+        // With lexer highlighting on, only types become highlights; the other entries are colored by the lexer
+        if (CodeColorOptions.getInstance().lexerHighlighting) {
+            final int typeCategory = KeywordCategory.PHP_RETURN_TYPE.ordinal();
+            for (int category = 0; category < counts.length; category++) {
+                if (category != typeCategory) {
+                    counts[category] = 0;
+                }
+            }
+        }
+
+        long highlights = 0;
+        for (final int count : counts) {
+            highlights += count;
+        }
+        return highlights * BYTES_PER_HIGHLIGHT + cache.getRetainedBytes();
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+/**
+ * How much of a file is highlighted, from everything down to nothing. See {@link LargeFiles}.
+ * <p>
+ * There is no level limited to the visible part of a file. The single-pass highlighting already classifies and
+ * applies what is on screen first ({@link CodeColorHighlightingPass}). A viewport-only level would also have to
+ * re-highlight on every scroll, outside the daemon, and the annotator never knows the viewport.
+ */
+public enum HighlightingLevel {
+    FULL,
+    /**
+     * Only language keywords and literals (see {@link KeywordCategory#isLanguageKeyword()}) and type declarations.
+     */
+    KEYWORDS_ONLY,
+    OFF;
+
+    @SuppressWarnings("HardCodedStringLiteral")
+    @Override
+    public String toString() {
+        switch (this) {
+            case FULL:
+                return "Highlight everything";
+            case KEYWORDS_ONLY:
+                return "Keywords and types only";
+            default:
+                return "Off";
+        }
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Application-wide highlighting counters, shown by {@link ShowHighlightingStatsAction}.
+ * <p>
+ * Recording is off unless enabled in the settings; callers check {@link #isEnabled()}, a single volatile read,
+ * before recording anything. When on, counters are {@link LongAdder}s, so highlighting threads do not contend.
+ * <p>
+ * Startup costs (lazy tables and keys, the first highlighted PHP file) happen once per session and are always
+ * recorded, so they can be looked at without restarting the IDE with the setting on.
+ */
+@SuppressWarnings("HardCodedStringLiteral")
+public final class HighlightingStats {
+    private static final long[] PASS_BUCKETS_MS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000};
+
+    private static volatile boolean enabled;
+
+    private static final LongAdder PASSES = new LongAdder();
+    private static final LongAdder PASS_NANOS = new LongAdder();
+    private static final LongAdder[] PASS_HISTOGRAM = adders(PASS_BUCKETS_MS.length + 1);
+    private static final LongAdder LEAVES = new LongAdder();
+    private static final LongAdder REJECTED_LEAVES = new LongAdder();
+    private static final LongAdder COMMENT_SKIPS = new LongAdder();
+    private static final LongAdder CONTEXT_REJECTS = new LongAdder();
+    private static final LongAdder[] MATCHES = adders(KeywordCategory.values().length);
+
+    private static final Map<String, Long> INITIALIZATION_NANOS = new LinkedHashMap<>();
+    private static final AtomicBoolean FIRST_FILE_SEEN = new AtomicBoolean();
+    private static volatile long firstFileNanos = -1;
+    private static volatile long firstFileSinceStartMs = -1;
+
+    private HighlightingStats() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(final boolean value) {
+        enabled = value;
+    }
+
+    static void recordPass(final long nanos) {
+        PASSES.increment();
+        PASS_NANOS.add(nanos);
+        final long millis = nanos / 1_000_000;
+        int bucket = 0;
+        while (bucket < PASS_BUCKETS_MS.length && millis >= PASS_BUCKETS_MS[bucket]) {
+            bucket++;
+        }
+        PASS_HISTOGRAM[bucket].increment();
+    }
+
+    /**
+     * Records the one-time cost of building {@code what}, e.g. a lazily created table.
+     */
+    public static void recordInitialization(@NotNull final String what, final long nanos) {
+        synchronized (INITIALIZATION_NANOS) {
+            INITIALIZATION_NANOS.merge(what, nanos, Long::sum);
+        }
+    }
+
+    /**
+     * Records the pass time of the first PHP file highlighted in this session and when it finished, relative to JVM start.
+     */
+    static void recordFirstFile(final long nanos) {
+        if (!FIRST_FILE_SEEN.get() && FIRST_FILE_SEEN.compareAndSet(false, true)) {
+            firstFileNanos = nanos;
+            firstFileSinceStartMs = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        }
+    }
+
+    /**
+     * @param leaves   leaves looked at
+     * @param rejected leaves rejected by their token type before any lookup
+     */
+    static void recordLeaves(final int leaves, final int rejected) {
+        LEAVES.add(leaves);
+        REJECTED_LEAVES.add(rejected);
+    }
+
+    static void recordCommentSkip() {
+        COMMENT_SKIPS.increment();
+    }
+
+    static void recordContextRejects(final int count) {
+        CONTEXT_REJECTS.add(count);
+    }
+
+    static void recordMatch(final int category) {
+        MATCHES[category].increment();
+    }
+
+    static void reset() {
+        for (final LongAdder adder : new LongAdder[]{PASSES, PASS_NANOS, LEAVES, REJECTED_LEAVES, COMMENT_SKIPS, CONTEXT_REJECTS}) {
+            adder.reset();
+        }
+        for (final LongAdder adder : PASS_HISTOGRAM) {
+            adder.reset();
+        }
+        for (final LongAdder adder : MATCHES) {
+            adder.reset();
+        }
+    }
+
+    /**
+     * @param project if not {@code null}, the context rejects of the PHP files open in its editors are listed per file
+     */
+    @NotNull
+    static String report(@Nullable final Project project) {
+        final StringBuilder out = new StringBuilder();
+        if (!enabled) {
+            out.append("Recording is off; enable it in Settings | Editor | PHP Syntax Color Highlighter.\n\n");
+        }
+
+        final long passes = PASSES.sum();
+        final long leaves = LEAVES.sum();
+        long matches = 0;
+        for (final LongAdder adder : MATCHES) {
+            matches += adder.sum();
+        }
+
+        out.append(String.format(Locale.ROOT, "File passes: %d, average %.2f ms%n",
+                passes, passes == 0 ? 0.0 : PASS_NANOS.sum() / 1e6 / passes));
+        for (int i = 0; i < PASS_HISTOGRAM.length; i++) {
+            final long count = PASS_HISTOGRAM[i].sum();
+            if (count > 0) {
+                out.append(i < PASS_BUCKETS_MS.length ? "  < " + PASS_BUCKETS_MS[i] + " ms: " : "  >= 1000 ms: ").append(count).append('\n');
+            }
+        }
+        out.append(String.format(Locale.ROOT, "Leaves: %d, rejected early: %d%n", leaves, REJECTED_LEAVES.sum()));
+        out.append(String.format(Locale.ROOT, "Matches: %d (%.2f%% of leaves), dropped by context: %d%n",
+                matches, leaves == 0 ? 0.0 : matches * 100.0 / leaves, CONTEXT_REJECTS.sum()));
+        if (project != null) {
+            appendContextRejects(project, out);
+        }
+        out.append("Comment skips: ").append(COMMENT_SKIPS.sum()).append('\n');
+        for (final KeywordCategory category : KeywordCategory.values()) {
+            final long count = MATCHES[category.ordinal()].sum();
+            if (count > 0) {
+                out.append("  ").append(category.name()).append(": ").append(count).append('\n');
+            }
+        }
+
+        out.append("\nStartup\n");
+        synchronized (INITIALIZATION_NANOS) {
+            for (final Map.Entry<String, Long> entry : INITIALIZATION_NANOS.entrySet()) {
+                out.append(String.format(Locale.ROOT, "  %s: %.2f ms%n", entry.getKey(), entry.getValue() / 1e6));
+            }
+        }
+        if (firstFileSinceStartMs >= 0) {
+            out.append(String.format(Locale.ROOT, "  First PHP file: %.2f ms, done %d ms after IDE start%n",
+                    firstFileNanos / 1e6, firstFileSinceStartMs));
+        }
+        return out.toString();
+    }
+
+    /**
+     * Lists the open PHP files with keyword matches not highlighted in their context, as of each file's last full scan.
+     */
+    private static void appendContextRejects(@NotNull final Project project, @NotNull final StringBuilder out) {
+        for (final VirtualFile virtualFile : FileEditorManager.getInstance(project).getOpenFiles()) {
+            final PsiFile psiFile = virtualFile.isValid() ? PsiManager.getInstance(project).findFile(virtualFile) : null;
+            final PsiFile phpFile = psiFile == null ? null : FileKeywordScanner.getPhpFile(psiFile);
+            final KeywordHighlightCache cache = phpFile == null ? null : KeywordHighlightCache.peek(phpFile);
+            if (cache != null && cache.getContextRejects() > 0) {
+                out.append("  ").append(virtualFile.getName()).append(": ").append(cache.getContextRejects())
+                        .append(" dropped by context\n");
+            }
+        }
+    }
+
+    @NotNull
+    private static LongAdder[] adders(final int count) {
+        final LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Keyword categories recognised by the highlighter, together with the identifiers that belong to them.
+ * The ordinal of a category is what the lookup tables store, so it has to stay free of IDE classes.
+ */
+@SuppressWarnings({"SpellCheckingInspection", "HardCodedStringLiteral"})
+public enum KeywordCategory {
+    MODIFIER(
+            "private", "public", "protected"),
+
+    STATIC_FINAL(
+            "static", "final"),
+
+    THIS_SELF(
+            "self"),
+
+    USE_NAMESPACE(
+            "use", "namespace"),
+
+    FUNCTION(
+            "function"),
+
+    PHP_RETURN(
+            "return"),
+
+    PHP_HANDLING_FUNCTION(
+            "boolval", "debug_zval_dump", "doubleval", "empty", "floatval", "fdiv", "get_defined_vars",
+            "get_resource_type", "gettype", "intval", "is_array", "is_bool", "is_callable", "is_countable",
+            "is_double", "is_float", "is_int", "is_integer", "is_iterable", "is_long", "is_numeric", "is_object",
+            "is_real", "is_resource", "is_scalar", "is_string", "is_null", "not_null", "not_string", "not_set",
+            "equals", "not_equals", "greater", "smaller", "equals_or_greater", "equals_or_smaller", "isset",
+            "serialize", "unserialize", "settype", "strval", "unset", "super"),
+
+    PHP_TRUE_KEYWORD(
+            "true"),
+
+    PHP_FALSE_KEYWORD(
+            "false"),
+
+    PHP_NULL_KEYWORD(
+            "null"),
+
+    PHP_STRING_FUNCTION(
+            "addcslashes", "addslashes", "bin2hex", "chop", "chr", "chunk_split", "convert_cyr_string",
+            "convert_uudecode", "convert_uuencode", "count_chars", "crc32", "crypt", "echo", "explode", "fprintf",
+            "get_html_translation_table", "hebrev", "hebrevc", "hex2bin", "html_entity_decode", "htmlentities",
+            "htmlspecialchars_decode", "htmlspecialchars", "implode", "join", "lcfirst", "levenshtein",
+            "localeconv", "ltrim", "md5_file", "md5", "metaphone", "money_format", "nl_langinfo", "nl2br",
+            "number_format", "ord", "parse_str", "print", "printf", "quoted_printable_decode",
+            "quoted_printable_encode", "quotemeta", "rtrim", "setlocale", "sha1_file", "sha1", "similar_text",
+            "soundex", "sprintf", "sscanf", "str_getcsv", "str_ireplace", "str_pad", "str_repeat", "str_replace",
+            "str_contains", "str_starts_with", "str_ends_with", "str_rot13", "str_shuffle", "str_split",
+            "str_word_count", "strcasecmp", "strchr", "strcmp", "strcoll", "strcspn", "strip_tags",
+            "stripcslashes", "stripos", "stripslashes", "stristr", "strlen", "strnatcasecmp", "strnatcmp",
+            "strncasecmp", "strncmp", "strpbrk", "strpos", "strrchr", "strrev", "strripos", "strrpos", "strspn",
+            "strstr", "strtok", "strtolower", "strtoupper", "strtr", "substr_compare", "substr_count",
+            "substr_replace", "substr", "grapheme_substr", "iconv_substr", "mb_substr", "trim", "ucfirst",
+            "ucwords", "vfprintf", "vprintf", "vsprintf", "wordwrap"),
+
+    PHP_ARRAY_FUNCTION(
+            "array_change_key_case", "array_chunk", "array_column", "array_combine", "array_count_values",
+            "array_diff_assoc", "array_diff_key", "array_diff_uassoc", "array_diff_ukey", "array_diff",
+            "array_fill_keys", "array_fill", "array_filter", "array_flip", "array_intersect_assoc",
+            "array_intersect_key", "array_intersect_uassoc", "array_intersect_ukey", "array_intersect",
+            "array_key_exists", "array_key_first", "array_key_last", "array_keys", "array_map",
+            "array_merge_recursive", "array_merge", "array_multisort", "array_pad", "array_pop", "array_product",
+            "array_push", "array_rand", "array_reduce", "array_replace_recursive", "array_replace",
+            "array_reverse", "array_search", "array_shift", "array_slice", "array_splice", "array_sum",
+            "array_udiff_assoc", "array_udiff_uassoc", "array_udiff", "array_uintersect_assoc",
+            "array_uintersect_uassoc", "array_uintersect", "array_unique", "array_unshift", "array_values",
+            "array_walk_recursive", "array_walk", "array", "arsort", "asort", "compact", "count", "current", "end",
+            "extract", "in_array", "key_exists", "key", "krsort", "ksort", "list", "natcasesort", "natsort",
+            "next", "pos", "prev", "range", "reset", "rsort", "shuffle", "sizeof", "sort", "uasort", "uksort",
+            "usort", "each"),
+
+    PHP_OBJECT_FUNCTION(
+            "__autoload", "class_alias", "class_exists", "get_called_class", "get_class_methods", "get_class_vars",
+            "get_class", "get_declared_classes", "get_declared_interfaces", "get_declared_traits",
+            "get_object_vars", "get_parent_class", "interface_exists", "is_a", "is_subclass_of", "method_exists",
+            "property_exists", "trait_exists"),
+
+    PHP_MISC_FUNCTION(
+            "connection_aborted", "connection_status", "constant", "define", "defined", "die", "eval", "exit",
+            "get_browser", "__halt_compiler", "highlight_file", "highlight_string", "hrtime", "ignore_user_abort",
+            "pack", "php_check_syntax", "php_strip_whitespace", "sapi_windows_cp_conv", "sapi_windows_cp_get",
+            "sapi_windows_cp_is_utf8", "sapi_windows_cp_set", "sapi_windows_generate_ctrl_event",
+            "sapi_windows_set_ctrl_handler", "sapi_windows_vt100_support", "show_source", "sleep",
+            "sys_getloadavg", "time_nanosleep", "time_sleep_until", "uniqid", "unpack", "usleep"),
+
+    PHP_JSON_FUNCTION(
+            "json_decode", "json_encode"),
+
+    PHP_MATH_FUNCTION(
+            "abs", "acos", "acosh", "asin", "asinh", "atan2", "atan", "atanh", "base_convert", "bindec", "ceil",
+            "cos", "cosh", "decbin", "dechex", "decoct", "deg2rad", "exp", "expm1", "floor", "fmod", "getrandmax",
+            "hexdec", "hypot", "intdiv", "is_finite", "is_infinite", "is_nan", "lcg_value", "log10", "log1p",
+            "log", "max", "min", "mt_getrandmax", "mt_rand", "mt_srand", "octdec", "pi", "pow", "rad2deg", "rand",
+            "round", "sin", "sinh", "sqrt", "srand", "tan", "tanh"),
+
+    PHP_HANDLER_FUNCTION(
+            "call_user_func_array", "call_user_func", "forward_static_call_array", "forward_static_call",
+            "func_get_arg", "func_get_args", "func_num_args", "token_get_all", "function_exists",
+            "get_defined_functions", "get_resource_id", "get_debug_type", "register_shutdown_function",
+            "register_tick_function", "unregister_tick_function"),
+
+    PHP_PREG(
+            "preg_filter", "preg_grep", "preg_match_all", "preg_match", "preg_quote",
+            "preg_replace_callback_array", "preg_replace_callback", "preg_replace", "preg_split"),
+
+    PHP_DATE(
+            "date_default_timezone_set", "date_interval_create_from_date_string", "timezone_version_get",
+            "timezone_abbreviations_list", "timezone_identifiers_list", "timezone_location_get",
+            "timezone_transitions_get", "timezone_offset_get", "timezone_name_from_abbr", "timezone_name_get",
+            "timezone_open", "date_timestamp_get", "date_timestamp_set", "date_isodate_set", "date_date_set",
+            "date_time_set", "date_diff", "date_offset_get", "date_timezone_set", "date_timezone_get", "date_add",
+            "date_sub", "date_modify", "date_format", "date_parse_from_format", "date_create_from_format",
+            "date_create_immutable_from_format", "date_create_immutable", "date_create", "date", "date_sunset",
+            "date_sunrise", "date_sun_info", "gmdate", "idate", "mktime", "strtotime", "time", "getdate",
+            "strftime", "gmmktime", "gmstrftime", "getlastmod", "IntlDateFormatter", "DateTimeImmutable", "DateTime"),
+
+    PHP_SUCCESS(
+            "success", "onSuccess", "allow"),
+
+    PHP_ERROR(
+            "error", "onError", "critical", "deny", "intl_get_error_message", "preg_last_error_msg",
+            "preg_last_error", "json_last_error_msg", "json_last_error", "error_get_last", "display_errors"),
+
+    PHP_DEBUG(
+            "print_r", "console", "var_dump", "var_export", "debug"),
+
+    // Assigned by position in a declaration (see TypeDeclarationScanner), never by name
+    PHP_RETURN_TYPE,
+
+    // Assigned to tags in doc comments (see DocTags), never to code
+    PHPDOC_INTERNAL;
+
+    private final String[] words;
+
+    KeywordCategory(@NotNull final String... words) {
+        this.words = words;
+    }
+
+    @NotNull
+    String[] getWords() {
+        return words;
+    }
+
+    /**
+     * @return whether the category holds language keywords and literals, which are lexed as their own tokens and
+     * need no context to be classified
+     */
+    public boolean isLanguageKeyword() {
+        switch (this) {
+            case MODIFIER:
+            case STATIC_FINAL:
+            case THIS_SELF:
+            case USE_NAMESPACE:
+            case FUNCTION:
+            case PHP_RETURN:
+            case PHP_TRUE_KEYWORD:
+            case PHP_FALSE_KEYWORD:
+            case PHP_NULL_KEYWORD:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * @return whether the category holds PHP function names, which PHP resolves case-insensitively ({@code STRLEN()} is
+     * {@code strlen()}). Only the words of such a category that the stubs declare, or that name a class, are folded
+     * (see {@link KeywordTable}); keywords, literals and the success/error words, which are mostly user method names,
+     * match exactly.
+     */
+    public boolean isCaseInsensitive() {
+        switch (this) {
+            case PHP_HANDLING_FUNCTION:
+            case PHP_STRING_FUNCTION:
+            case PHP_ARRAY_FUNCTION:
+            case PHP_OBJECT_FUNCTION:
+            case PHP_MISC_FUNCTION:
+            case PHP_JSON_FUNCTION:
+            case PHP_MATH_FUNCTION:
+            case PHP_HANDLER_FUNCTION:
+            case PHP_PREG:
+            case PHP_DATE:
+            case PHP_DEBUG:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static final KeywordCategory[] VALUES = values();
+
+    @NotNull
+    public static KeywordCategory byOrdinal(final int ordinal) {
+        return VALUES[ordinal];
+    }
+}
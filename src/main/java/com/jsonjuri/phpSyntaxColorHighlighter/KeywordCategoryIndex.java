@@ -0,0 +1,154 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import com.intellij.openapi.fileTypes.FileType;
+import com.intellij.openapi.fileTypes.LanguageFileType;
+import com.intellij.util.indexing.DataIndexer;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.indexing.FileBasedIndexExtension;
+import com.intellij.util.indexing.FileContent;
+import com.intellij.util.indexing.ID;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorIntegerDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Index from a {@link KeywordCategory} ordinal to the ranges of a PHP file classified into it, stored as
+ * {@code [start0, end0, start1, end1, ...]}.
+ * <p>
+ * Files are classified by {@link TextKeywordScanner} with the built-in table, so the index does not depend on the
+ * settings: user-defined identifiers are not indexed, and function names are indexed wherever they appear as names.
+ * The index only narrows the files to look at; {@link FindByCategoryAction} keeps the hits that
+ * {@link KeywordContext} accepts, i.e. where the highlighter would color them.
+ */
+public final class KeywordCategoryIndex extends FileBasedIndexExtension<Integer, int[]> {
+    public static final ID<Integer, int[]> NAME = ID.create("com.jsonjuri.phpSyntaxColorHighlighter.KeywordCategoryIndex");
+
+    // Bump whenever the tokenizer, the type scanner, the categories or the function dictionary change
+    private static final int VERSION = 4;
+
+    @Override
+    public @NotNull ID<Integer, int[]> getName() {
+        return NAME;
+    }
+
+    @Override
+    public @NotNull DataIndexer<Integer, int[], FileContent> getIndexer() {
+        return KeywordCategoryIndex::index;
+    }
+
+    @Override
+    public @NotNull KeyDescriptor<Integer> getKeyDescriptor() {
+        return EnumeratorIntegerDescriptor.INSTANCE;
+    }
+
+    @Override
+    public @NotNull DataExternalizer<int[]> getValueExternalizer() {
+        return RangesExternalizer.INSTANCE;
+    }
+
+    @Override
+    public int getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    public @NotNull FileBasedIndex.InputFilter getInputFilter() {
+        return file -> isPhp(file.getFileType());
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    @NotNull
+    private static Map<Integer, int[]> index(@NotNull final FileContent content) {
+        final int[][] ranges = new int[KeywordCategory.values().length][];
+        final int[] sizes = new int[ranges.length];
+        new TextKeywordScanner().scan(content.getContentAsText(), (startOffset, endOffset, category) -> {
+            int[] categoryRanges = ranges[category];
+            if (categoryRanges == null) {
+                categoryRanges = ranges[category] = new int[8];
+            } else if (sizes[category] == categoryRanges.length) {
+                categoryRanges = ranges[category] = Arrays.copyOf(categoryRanges, categoryRanges.length * 2);
+            }
+            categoryRanges[sizes[category]++] = startOffset;
+            categoryRanges[sizes[category]++] = endOffset;
+        });
+
+        final Map<Integer, int[]> result = new HashMap<>();
+        for (int category = 0; category < ranges.length; category++) {
+            if (ranges[category] != null) {
+                result.put(category, Arrays.copyOf(ranges[category], sizes[category]));
+            }
+        }
+        return result;
+    }
+
+    private static boolean isPhp(@NotNull final FileType fileType) {
+        return fileType instanceof LanguageFileType && ((LanguageFileType) fileType).getLanguage().isKindOf("PHP");
+    }
+
+    // Ranges are sorted, so starts are written as deltas from the previous start and ends as lengths
+    private static final class RangesExternalizer implements DataExternalizer<int[]> {
+        static final RangesExternalizer INSTANCE = new RangesExternalizer();
+
+        @Override
+        public void save(@NotNull final DataOutput out, final int[] value) throws IOException {
+            DataInputOutputUtil.writeINT(out, value.length / 2);
+            int previous = 0;
+            for (int i = 0; i < value.length; i += 2) {
+                DataInputOutputUtil.writeINT(out, value[i] - previous);
+                DataInputOutputUtil.writeINT(out, value[i + 1] - value[i]);
+                previous = value[i];
+            }
+        }
+
+        @Override
+        public int[] read(@NotNull final DataInput in) throws IOException {
+            final int[] value = new int[DataInputOutputUtil.readINT(in) * 2];
+            int previous = 0;
+            for (int i = 0; i < value.length; i += 2) {
+                value[i] = previous + DataInputOutputUtil.readINT(in);
+                value[i + 1] = value[i] + DataInputOutputUtil.readINT(in);
+                previous = value[i];
+            }
+            return value;
+        }
+    }
+}
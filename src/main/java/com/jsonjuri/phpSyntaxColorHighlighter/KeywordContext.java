@@ -0,0 +1,174 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import com.intellij.lang.ASTNode;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.tree.IElementType;
+import com.jsonjuri.phpSyntaxColorHighlighter.settings.CodeColorOptions;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Decides whether a keyword table match applies where it occurs, from the kind of the leaf's immediate parent.
+ * <p>
+ * A name matches by text alone, so {@code $it->end()}, {@code Foo::count} or a method declared as {@code date()}
+ * would otherwise be colored as built-ins. The rules are:
+ * <ul>
+ * <li>keyword tokens of the lexer always apply, they cannot be anything else</li>
+ * <li>{@link CustomKeywords user mappings} apply to function, method and constant references and to class references,
+ * but not to declarations; they are never resolved</li>
+ * <li>function categories apply to global function calls; entries that are {@link KeywordTable#isClassName(int) class
+ * names}, such as {@code DateTime}, to class references</li>
+ * <li>{@link KeywordCategory#PHP_SUCCESS} and {@link KeywordCategory#PHP_ERROR} apply to method calls, and to function
+ * calls of functions declared in the PHP stubs</li>
+ * <li>{@code true}, {@code false} and {@code null} apply as constants</li>
+ * <li>the remaining keyword categories apply anywhere but in a method call</li>
+ * </ul>
+ * With {@link CodeColorOptions#resolveBuiltIns} on, function calls and class references that pass these rules must
+ * also resolve to a built-in (see {@link BuiltInResolver}).
+ * <p>
+ * The PHP plugin is not a compile dependency, so parents are recognised by the names of the PSI interfaces their
+ * classes implement. That costs a walk over the type hierarchy once per PSI class, cached in a {@link ClassValue}.
+ */
+@SuppressWarnings("HardCodedStringLiteral")
+final class KeywordContext {
+    static final int OTHER = 0;
+    static final int FUNCTION_CALL = 1;
+    static final int METHOD_CALL = 2;
+    static final int CONSTANT = 3;
+    static final int CLASS_REFERENCE = 4;
+    static final int ARRAY = 5;
+    static final int PARAMETER = 6;
+    static final int NAMESPACE = 7;
+
+    private static final String PSI_PACKAGE = "com.jetbrains.php.lang.psi.elements.";
+
+    // Most specific first: a method reference is also a function reference
+    private static final String[] PARENT_INTERFACES = {
+            PSI_PACKAGE + "MethodReference",
+            PSI_PACKAGE + "FunctionReference",
+            PSI_PACKAGE + "ConstantReference",
+            PSI_PACKAGE + "ClassReference",
+            PSI_PACKAGE + "ArrayCreationExpression",
+            PSI_PACKAGE + "Parameter",
+            PSI_PACKAGE + "PhpNamespace"
+    };
+    private static final Integer[] PARENT_KINDS = {METHOD_CALL, FUNCTION_CALL, CONSTANT, CLASS_REFERENCE, ARRAY, PARAMETER, NAMESPACE};
+
+    private static final ClassValue<Integer> KINDS = new ClassValue<>() {
+        @Override
+        protected Integer computeValue(final Class<?> type) {
+            return kindOf(type);
+        }
+    };
+
+    private KeywordContext() {
+    }
+
+    /**
+     * @param entry the entry of {@code table} that the text of {@code leaf} matched
+     */
+    static boolean accepts(@NotNull final ASTNode leaf, @NotNull final KeywordTable table, final int entry) {
+        final int category = table.categoryAt(entry);
+        if (category == KeywordCategory.PHP_RETURN_TYPE.ordinal() || !CandidateTokenTypes.isIdentifier(leaf.getElementType())) {
+            return true;
+        }
+        final int parentKind = parentKind(leaf);
+        if (table.isUserDefined(entry)) {
+            return isReference(parentKind);
+        }
+        if (!accepts(category, table.isClassName(entry), table.isDeclaredFunction(entry), parentKind)) {
+            return false;
+        }
+        return (parentKind != FUNCTION_CALL && parentKind != CLASS_REFERENCE)
+                || !CodeColorOptions.getInstance().resolveBuiltIns
+                || BuiltInResolver.isBuiltIn(leaf);
+    }
+
+    static boolean accepts(final int category, final boolean className, final boolean declaredFunction, final int parentKind) {
+        switch (KeywordCategory.byOrdinal(category)) {
+            case PHP_TRUE_KEYWORD:
+            case PHP_FALSE_KEYWORD:
+            case PHP_NULL_KEYWORD:
+                return parentKind == CONSTANT;
+            case PHP_SUCCESS:
+            case PHP_ERROR:
+                return parentKind == METHOD_CALL
+                        || (parentKind == FUNCTION_CALL && declaredFunction);
+            case MODIFIER:
+            case STATIC_FINAL:
+            case THIS_SELF:
+            case USE_NAMESPACE:
+            case FUNCTION:
+            case PHP_RETURN:
+            case PHP_RETURN_TYPE:
+                return parentKind != METHOD_CALL;
+            default:
+                return className ? parentKind == CLASS_REFERENCE : parentKind == FUNCTION_CALL;
+        }
+    }
+
+    private static boolean isReference(final int parentKind) {
+        return parentKind == FUNCTION_CALL || parentKind == METHOD_CALL || parentKind == CONSTANT || parentKind == CLASS_REFERENCE;
+    }
+
+    static int parentKind(@NotNull final ASTNode leaf) {
+        final ASTNode parent = leaf.getTreeParent();
+        return parent == null ? OTHER : kindOf(parent);
+    }
+
+    static int kindOf(@NotNull final ASTNode node) {
+        final PsiElement psi = node.getPsi();
+        return psi == null ? OTHER : KINDS.get(psi.getClass());
+    }
+
+    @NotNull
+    private static Integer kindOf(@NotNull final Class<?> type) {
+        int best = PARENT_INTERFACES.length;
+        final Deque<Class<?>> pending = new ArrayDeque<>();
+        pending.add(type);
+        while (!pending.isEmpty()) {
+            final Class<?> current = pending.poll();
+            for (int i = 0; i < best; i++) {
+                if (PARENT_INTERFACES[i].equals(current.getName())) {
+                    best = i;
+                    break;
+                }
+            }
+            if (current.getSuperclass() != null) {
+                pending.add(current.getSuperclass());
+            }
+            for (final Class<?> implemented : current.getInterfaces()) {
+                pending.add(implemented);
+            }
+        }
+        return best == PARENT_INTERFACES.length ? OTHER : PARENT_KINDS[best];
+    }
+}
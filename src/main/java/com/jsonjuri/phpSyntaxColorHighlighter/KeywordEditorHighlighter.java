@@ -0,0 +1,216 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import com.intellij.lang.Language;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.editor.colors.EditorColorsScheme;
+import com.intellij.openapi.editor.event.DocumentEvent;
+import com.intellij.openapi.editor.ex.EditorDocumentPriorities;
+import com.intellij.openapi.editor.ex.PrioritizedDocumentListener;
+import com.intellij.openapi.editor.highlighter.EditorHighlighter;
+import com.intellij.openapi.editor.highlighter.HighlighterClient;
+import com.intellij.openapi.editor.highlighter.HighlighterIterator;
+import com.intellij.openapi.editor.markup.TextAttributes;
+import com.intellij.psi.tree.IElementType;
+import com.jsonjuri.phpSyntaxColorHighlighter.settings.CodeColorOptions;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Editor highlighter that layers the keyword categories over the colors of the PHP editor highlighter.
+ * <p>
+ * Token types are left as the PHP lexer reports them, so typed, brace, quote and smart enter handlers that compare
+ * {@link HighlighterIterator#getTokenType()} with the PHP token types keep working. Only the text attributes of
+ * an iterator are changed: a candidate PHP token whose text is in the keyword table gets the attributes of its
+ * category merged over its own. The lookup depends on the token text only, so relexing stays with the delegate.
+ */
+final class KeywordEditorHighlighter implements EditorHighlighter, PrioritizedDocumentListener {
+    private static final int CATEGORY_COUNT = KeywordCategory.values().length;
+    private static final TextAttributes NO_ATTRIBUTES = new TextAttributes();
+
+    private final EditorHighlighter delegate;
+    private final Language language;
+    // Iterators are created and read on the EDT and on background threads, so each one keeps its own scheme and
+    // merged attributes
+    private volatile EditorColorsScheme scheme;
+
+    KeywordEditorHighlighter(@NotNull final EditorHighlighter delegate,
+                             @NotNull final Language language,
+                             @NotNull final EditorColorsScheme scheme) {
+        this.delegate = delegate;
+        this.language = language;
+        this.scheme = scheme;
+    }
+
+    @Override
+    public @NotNull HighlighterIterator createIterator(final int startOffset) {
+        return new KeywordIterator(delegate.createIterator(startOffset), CodeColorOptions.getInstance().getKeywordTable(), scheme);
+    }
+
+    @Override
+    public void setText(@NotNull final CharSequence text) {
+        delegate.setText(text);
+    }
+
+    @Override
+    public void setEditor(@NotNull final HighlighterClient editor) {
+        delegate.setEditor(editor);
+    }
+
+    @Override
+    public void setColorScheme(@NotNull final EditorColorsScheme scheme) {
+        this.scheme = scheme;
+        delegate.setColorScheme(scheme);
+    }
+
+    @Override
+    public void beforeDocumentChange(@NotNull final DocumentEvent event) {
+        delegate.beforeDocumentChange(event);
+    }
+
+    @Override
+    public void documentChanged(@NotNull final DocumentEvent event) {
+        delegate.documentChanged(event);
+    }
+
+    @Override
+    public void bulkUpdateStarting(@NotNull final Document document) {
+        delegate.bulkUpdateStarting(document);
+    }
+
+    @Override
+    public void bulkUpdateFinished(@NotNull final Document document) {
+        delegate.bulkUpdateFinished(document);
+    }
+
+    // The editor relies on the lexer layer being updated before the listeners that read it
+    @Override
+    public int getPriority() {
+        return delegate instanceof PrioritizedDocumentListener
+                ? ((PrioritizedDocumentListener) delegate).getPriority()
+                : EditorDocumentPriorities.LEXER_EDITOR;
+    }
+
+    private final class KeywordIterator implements HighlighterIterator {
+        private final HighlighterIterator iterator;
+        private final KeywordTable table;
+        private final EditorColorsScheme scheme;
+        private final CharWindow window = new CharWindow();
+        private int categoryStart = -1;
+        private int category = KeywordTable.NOT_FOUND;
+        // The merged attributes of a category over the base attributes they were merged with, created on demand
+        @Nullable
+        private TextAttributes[] bases;
+        @Nullable
+        private TextAttributes[] merged;
+
+        KeywordIterator(@NotNull final HighlighterIterator iterator,
+                        @NotNull final KeywordTable table,
+                        @NotNull final EditorColorsScheme scheme) {
+            this.iterator = iterator;
+            this.table = table;
+            this.scheme = scheme;
+        }
+
+        @Override
+        public TextAttributes getTextAttributes() {
+            final TextAttributes base = iterator.getTextAttributes();
+            final int tokenCategory = getCategory();
+            if (tokenCategory == KeywordTable.NOT_FOUND) {
+                return base;
+            }
+            return attributes(base != null ? base : NO_ATTRIBUTES, tokenCategory);
+        }
+
+        @Override
+        public int getStart() {
+            return iterator.getStart();
+        }
+
+        @Override
+        public int getEnd() {
+            return iterator.getEnd();
+        }
+
+        @Override
+        public IElementType getTokenType() {
+            return iterator.getTokenType();
+        }
+
+        @Override
+        public void advance() {
+            iterator.advance();
+        }
+
+        @Override
+        public void retreat() {
+            iterator.retreat();
+        }
+
+        @Override
+        public boolean atEnd() {
+            return iterator.atEnd();
+        }
+
+        @Override
+        public Document getDocument() {
+            return iterator.getDocument();
+        }
+
+        @NotNull
+        private TextAttributes attributes(@NotNull final TextAttributes base, final int category) {
+            if (bases == null || merged == null) {
+                bases = new TextAttributes[CATEGORY_COUNT];
+                merged = new TextAttributes[CATEGORY_COUNT];
+            }
+            if (bases[category] != base || merged[category] == null) {
+                bases[category] = base;
+                merged[category] = TextAttributes.merge(base, scheme.getAttributes(CodeColorKeys.of(category)));
+            }
+            return merged[category];
+        }
+
+        private int getCategory() {
+            final int start = iterator.getStart();
+            if (start != categoryStart) {
+                categoryStart = start;
+                category = classify(iterator.getTokenType(), start);
+            }
+            return category;
+        }
+
+        private int classify(final IElementType type, final int start) {
+            if (type == null || type.getLanguage() != language || !CandidateTokenTypes.isCandidate(type)) {
+                return KeywordTable.NOT_FOUND;
+            }
+            final int found = table.categoryOf(window.set(iterator.getDocument().getImmutableCharSequence(), start, iterator.getEnd()));
+            window.clear();
+            return found;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import com.intellij.lang.Language;
+import com.intellij.openapi.editor.colors.EditorColorsScheme;
+import com.intellij.openapi.editor.highlighter.EditorHighlighter;
+import com.intellij.openapi.editor.highlighter.EditorHighlighterFactory;
+import com.intellij.openapi.fileTypes.EditorHighlighterProvider;
+import com.intellij.openapi.fileTypes.FileType;
+import com.intellij.openapi.fileTypes.FileTypeEditorHighlighterProviders;
+import com.intellij.openapi.fileTypes.SyntaxHighlighterFactory;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.jsonjuri.phpSyntaxColorHighlighter.settings.CodeColorOptions;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Registered first for PHP files, so editors get the keyword categories from the lexer layer when
+ * {@link CodeColorOptions#lexerHighlighting} is on (see {@link KeywordEditorHighlighter}). Otherwise the highlighter
+ * of the PHP plugin is returned as it is.
+ */
+public final class KeywordEditorHighlighterProvider implements EditorHighlighterProvider {
+    @Override
+    public EditorHighlighter getEditorHighlighter(@Nullable final Project project,
+                                                  @NotNull final FileType fileType,
+                                                  @Nullable final VirtualFile virtualFile,
+                                                  @NotNull final EditorColorsScheme colors) {
+        final EditorHighlighter original = createOriginal(project, fileType, virtualFile, colors);
+        final Language language = Language.findLanguageByID("PHP");
+        if (language == null || !CodeColorOptions.getInstance().lexerHighlighting) {
+            return original;
+        }
+        return new KeywordEditorHighlighter(original, language, colors);
+    }
+
+    @NotNull
+    private static EditorHighlighter createOriginal(@Nullable final Project project,
+                                                    @NotNull final FileType fileType,
+                                                    @Nullable final VirtualFile virtualFile,
+                                                    @NotNull final EditorColorsScheme colors) {
+        for (final EditorHighlighterProvider provider : FileTypeEditorHighlighterProviders.INSTANCE.allForFileType(fileType)) {
+            if (!(provider instanceof KeywordEditorHighlighterProvider)) {
+                final EditorHighlighter highlighter = provider.getEditorHighlighter(project, fileType, virtualFile, colors);
+                if (highlighter != null) {
+                    return highlighter;
+                }
+            }
+        }
+        return EditorHighlighterFactory.getInstance().createEditorHighlighter(
+                SyntaxHighlighterFactory.getSyntaxHighlighter(fileType, project, virtualFile), colors);
+    }
+}
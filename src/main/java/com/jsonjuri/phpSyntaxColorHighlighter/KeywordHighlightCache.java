@@ -0,0 +1,331 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiFile;
+import com.jsonjuri.phpSyntaxColorHighlighter.settings.CodeColorOptions;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
+
+import java.util.Arrays;
+
+/**
+ * Keyword offsets and category ordinals of a file, as of one PSI modification stamp.
+ * <p>
+ * After an edit only the leaves of the dirty range are classified again; the entries before it are kept and
+ * the entries after it are shifted by the length change, so re-highlighting costs the size of the edit.
+ * A different keyword table (the user-defined identifiers changed, or the file entered or left the large-file
+ * mode) invalidates the whole cache, and so does a structural change (out-of-code-block PSI, file or project root
+ * changes) while built-ins are resolved ({@link CodeColorOptions#resolveBuiltIns}), since a declaration elsewhere
+ * can shadow or unshadow a built-in here. Edits inside code blocks of other files keep the cache.
+ */
+public final class KeywordHighlightCache {
+    private static final Key<KeywordHighlightCache> KEY = Key.create("PHP_SYNTAX_COLOR_KEYWORD_CACHE");
+    // Set in a stored category for an entry reported by KeywordSink#acceptDocTag; categories fit in the bits below
+    private static final int DOC_TAG = 0x40;
+
+    private final KeywordTable table;
+    private final long resolveStamp;
+    private final long modificationStamp;
+    private final int textLength;
+    private final int[] starts;
+    private final int[] ends;
+    private final byte[] categories;
+    private final int size;
+    private final int tokenCount;
+    private final int contextRejects;
+    private final int changedStart;
+    private final int changedEnd;
+
+    private KeywordHighlightCache(@NotNull final KeywordTable table,
+                                  final long resolveStamp,
+                                  final long modificationStamp,
+                                  final int textLength,
+                                  @NotNull final Entries entries,
+                                  final int tokenCount,
+                                  final int contextRejects,
+                                  final int changedStart,
+                                  final int changedEnd) {
+        this.table = table;
+        this.resolveStamp = resolveStamp;
+        this.modificationStamp = modificationStamp;
+        this.textLength = textLength;
+        this.starts = entries.starts;
+        this.ends = entries.ends;
+        this.categories = entries.categories;
+        this.size = entries.size;
+        this.tokenCount = tokenCount;
+        this.contextRejects = contextRejects;
+        this.changedStart = changedStart;
+        this.changedEnd = changedEnd;
+    }
+
+    /**
+     * @return whether {@link #update} would return the cached entries without classifying anything
+     */
+    public static boolean isUpToDate(@NotNull final PsiFile file) {
+        final KeywordHighlightCache cached = file.getUserData(KEY);
+        return cached != null && cached.table == LargeFiles.getKeywordTable(file) && cached.resolveStamp == getResolveStamp(file)
+                && cached.modificationStamp == file.getModificationStamp() && cached.textLength == file.getTextLength();
+    }
+
+    /**
+     * @return the cache of the file's current modification stamp, classifying only what changed inside
+     * {@code dirtyRange} since the previous one. A {@code null} range means the whole file is rescanned.
+     */
+    @NotNull
+    public static KeywordHighlightCache update(@NotNull final PsiFile file, @Nullable final TextRange dirtyRange) {
+        final KeywordTable table = LargeFiles.getKeywordTable(file);
+        final long resolveStamp = getResolveStamp(file);
+        final long stamp = file.getModificationStamp();
+        final int length = file.getTextLength();
+        KeywordHighlightCache cached = file.getUserData(KEY);
+        if (cached != null && (cached.table != table || cached.resolveStamp != resolveStamp)) {
+            cached = null;
+        }
+        if (cached != null && cached.modificationStamp == stamp && cached.textLength == length) {
+            return cached;
+        }
+
+        KeywordHighlightCache updated = null;
+        if (cached != null && dirtyRange != null) {
+            updated = cached.reclassify(file, stamp, length, dirtyRange);
+        }
+        if (updated == null) {
+            final Entries entries = new Entries(cached == null ? 256 : cached.size);
+            FileKeywordScanner.scan(file, table, entries);
+            updated = new KeywordHighlightCache(table, resolveStamp, stamp, length, entries, entries.tokens, entries.rejects, 0, length);
+        }
+
+        file.putUserData(KEY, updated);
+        return updated;
+    }
+
+    @Nullable
+    private KeywordHighlightCache reclassify(@NotNull final PsiFile file, final long stamp, final int length, @NotNull final TextRange dirtyRange) {
+        final Entries scanned = new Entries(16);
+        final TextRange visited = FileKeywordScanner.scan(file, dirtyRange.getStartOffset(), dirtyRange.getEndOffset(), table, scanned);
+
+        int scanStart = dirtyRange.getStartOffset();
+        int scanEnd = dirtyRange.getEndOffset();
+        if (visited != null) {
+            scanStart = Math.min(scanStart, visited.getStartOffset());
+            scanEnd = Math.max(scanEnd, visited.getEndOffset());
+        }
+
+        final int delta = length - textLength;
+        final int oldScanEnd = scanEnd - delta;
+        if (oldScanEnd < scanStart || oldScanEnd > textLength) {
+            return null;
+        }
+
+        final int prefix = firstEndingAfter(scanStart);
+        final int suffix = firstStartingAt(oldScanEnd);
+        final Entries entries = new Entries(prefix + scanned.size + size - suffix);
+        for (int i = 0; i < prefix; i++) {
+            entries.add(starts[i], ends[i], categories[i]);
+        }
+        for (int i = 0; i < scanned.size; i++) {
+            entries.add(scanned.starts[i], scanned.ends[i], scanned.categories[i]);
+        }
+        for (int i = suffix; i < size; i++) {
+            entries.add(starts[i] + delta, ends[i] + delta, categories[i]);
+        }
+        // Token and reject counts are only taken from full scans; between them the counts are estimates
+        return new KeywordHighlightCache(table, resolveStamp, stamp, length, entries, tokenCount, contextRejects, scanStart, scanEnd);
+    }
+
+    private static long getResolveStamp(@NotNull final PsiFile file) {
+        return CodeColorOptions.getInstance().resolveBuiltIns ? BuiltInResolver.getStructureModificationCount(file.getProject()) : 0;
+    }
+
+    /**
+     * @return the range that had to be classified again to produce this cache
+     */
+    @NotNull
+    public TextRange getChangedRange() {
+        return new TextRange(changedStart, changedEnd);
+    }
+
+    public void forEach(final int startOffset, final int endOffset, @NotNull final KeywordSink sink) {
+        for (int i = firstEndingAfter(startOffset); i < size && starts[i] < endOffset; i++) {
+            final int stored = categories[i];
+            if ((stored & DOC_TAG) != 0) {
+                sink.acceptDocTag(starts[i], ends[i], stored & ~DOC_TAG);
+            } else {
+                sink.accept(starts[i], ends[i], stored);
+            }
+        }
+    }
+
+    /**
+     * @return the category ordinal of the entry starting at {@code offset}, or {@link KeywordTable#NOT_FOUND}
+     */
+    public int categoryAt(final int offset) {
+        final int entry = firstEndingAfter(offset);
+        return entry < size && starts[entry] == offset ? categories[entry] & ~DOC_TAG : KeywordTable.NOT_FOUND;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of tokens of the file as of its last full scan, or 0 if it has not been scanned yet
+     */
+    public static int getTokenCount(@NotNull final PsiFile file) {
+        final KeywordHighlightCache cached = file.getUserData(KEY);
+        return cached == null ? 0 : cached.tokenCount;
+    }
+
+    /**
+     * @return the cache as of the file's last update, possibly out of date, without classifying anything
+     */
+    @Nullable
+    public static KeywordHighlightCache peek(@NotNull final PsiFile file) {
+        return file.getUserData(KEY);
+    }
+
+    /**
+     * Forgets the cache of {@code file}, so that the next {@link #update} classifies the whole file.
+     */
+    @TestOnly
+    static void drop(@NotNull final PsiFile file) {
+        file.putUserData(KEY, null);
+    }
+
+    public int getTokenCount() {
+        return tokenCount;
+    }
+
+    /**
+     * @return the number of keyword matches not highlighted in their context as of the file's last full scan
+     */
+    public int getContextRejects() {
+        return contextRejects;
+    }
+
+    /**
+     * Adds the number of entries of each category ordinal to {@code counts}.
+     */
+    public void countCategories(@NotNull final int[] counts) {
+        for (int i = 0; i < size; i++) {
+            counts[categories[i] & ~DOC_TAG]++;
+        }
+    }
+
+    /**
+     * @return the bytes held by the entry arrays, including their unused capacity
+     */
+    public long getRetainedBytes() {
+        return arrayBytes(starts.length * 4L) + arrayBytes(ends.length * 4L) + arrayBytes(categories.length);
+    }
+
+    // 16-byte array header, padded to 8 bytes as on a 64-bit JVM with compressed references
+    private static long arrayBytes(final long payload) {
+        return (16 + payload + 7) & ~7L;
+    }
+
+    private int firstEndingAfter(final int offset) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (ends[middle] <= offset) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int firstStartingAt(final int offset) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (starts[middle] < offset) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static final class Entries implements KeywordSink {
+        int[] starts;
+        int[] ends;
+        byte[] categories;
+        int size;
+        int tokens;
+        int rejects;
+
+        Entries(final int capacity) {
+            final int initial = Math.max(capacity, 16);
+            starts = new int[initial];
+            ends = new int[initial];
+            categories = new byte[initial];
+        }
+
+        @Override
+        public void accept(final int startOffset, final int endOffset, final int category) {
+            add(startOffset, endOffset, (byte) category);
+        }
+
+        @Override
+        public void acceptDocTag(final int startOffset, final int endOffset, final int category) {
+            add(startOffset, endOffset, (byte) (category | DOC_TAG));
+        }
+
+        void add(final int startOffset, final int endOffset, final byte category) {
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+                categories = Arrays.copyOf(categories, size * 2);
+            }
+            starts[size] = startOffset;
+            ends[size] = endOffset;
+            categories[size] = category;
+            size++;
+        }
+
+        @Override
+        public void tokensScanned(final int count) {
+            tokens += count;
+        }
+
+        @Override
+        public void rejectedByContext(final int count) {
+            rejects += count;
+        }
+    }
+}
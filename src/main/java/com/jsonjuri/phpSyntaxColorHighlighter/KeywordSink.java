@@ -0,0 +1,54 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+/**
+ * Receives classified tokens as offsets and a {@link KeywordCategory} ordinal, so reporting them allocates nothing.
+ */
+public interface KeywordSink {
+    void accept(int startOffset, int endOffset, int category);
+
+    /**
+     * Receives a tag of a doc comment, found by {@link DocTagScanner}, rather than a token of the code. Sinks that
+     * treat both alike need not override it.
+     */
+    default void acceptDocTag(final int startOffset, final int endOffset, final int category) {
+        accept(startOffset, endOffset, category);
+    }
+
+    /**
+     * Called once at the end of a scan with the number of tokens that were looked at.
+     */
+    default void tokensScanned(final int count) {
+    }
+
+    /**
+     * Called once at the end of a scan with the number of keyword matches that were not highlighted in their context.
+     */
+    default void rejectedByContext(final int count) {
+    }
+}
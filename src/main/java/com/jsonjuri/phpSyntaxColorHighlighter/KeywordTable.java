@@ -0,0 +1,490 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * Open-addressed table from identifier characters to a {@link KeywordCategory} ordinal.
+ * <p>
+ * All entries live in one shared {@code char[]}, so a lookup hashes and compares the characters of the
+ * {@link CharSequence} in place and never allocates.
+ * <p>
+ * Entries are hashed by their ASCII-lowercased characters. Built-in entries of a
+ * {@link KeywordCategory#isCaseInsensitive()} category that are {@link #isDeclaredFunction(int) declared functions} or
+ * {@link #isClassName(int) class names} then match any casing of their word; all other entries, such as
+ * {@code console} or a user's words, match only their exact characters. An exact match wins over a case-insensitive
+ * one.
+ * <p>
+ * An entry added with an uppercase first letter, such as {@code DateTime}, is a {@link #isClassName(int) class name}.
+ * The flag belongs to the entry, not to the text it was found with, so {@code DATE()} is still the function
+ * {@code date} and {@code datetime} is still the class {@code DateTime}. Entries added with
+ * {@link Builder#addUserDefined(String, KeywordCategory)} are {@link #isUserDefined(int) user-defined}, and words
+ * the PHP stubs declare as functions are {@link #isDeclaredFunction(int) declared functions}.
+ */
+public final class KeywordTable {
+    public static final int NOT_FOUND = -1;
+
+    private static final boolean[] CASE_INSENSITIVE = createCaseInsensitive();
+
+    private static final byte CLASS_NAME = 1;
+    private static final byte USER_DEFINED = 2;
+    private static final byte DECLARED_FUNCTION = 4;
+
+    private final char[] chars;
+    private final int[] offsets;
+    private final byte[] categories;
+    private final byte[] flags;
+    private final int[] slots;
+    private final int mask;
+    private final int minLength;
+    private final int maxLength;
+    private final boolean typeDeclarations;
+    @Nullable
+    private final KeywordTable docTags;
+
+    private KeywordTable(@NotNull final char[] chars,
+                         @NotNull final int[] offsets,
+                         @NotNull final byte[] categories,
+                         @NotNull final byte[] flags,
+                         final int size,
+                         final boolean typeDeclarations,
+                         @Nullable final KeywordTable docTags) {
+        this.chars = chars;
+        this.offsets = offsets;
+        this.categories = categories;
+        this.flags = flags;
+        this.typeDeclarations = typeDeclarations;
+        this.docTags = docTags;
+
+        slots = new int[capacityFor(size)];
+        mask = slots.length - 1;
+
+        int min = Integer.MAX_VALUE;
+        int max = 0;
+        for (int entry = 0; entry < size; entry++) {
+            final int start = offsets[entry];
+            final int length = offsets[entry + 1] - start;
+            min = Math.min(min, length);
+            max = Math.max(max, length);
+            insert(slots, entry, hash(chars, start, length));
+        }
+        minLength = size == 0 ? 1 : min;
+        maxLength = max;
+    }
+
+    /**
+     * @return the category ordinal of {@code text}, or {@link #NOT_FOUND}
+     */
+    public int categoryOf(@NotNull final CharSequence text) {
+        final int entry = entryOf(text);
+        return entry == NOT_FOUND ? NOT_FOUND : categories[entry];
+    }
+
+    /**
+     * @return the entry that {@code text} matches, for {@link #categoryAt(int)} and {@link #isClassName(int)}, or
+     * {@link #NOT_FOUND}
+     */
+    public int entryOf(@NotNull final CharSequence text) {
+        final int length = text.length();
+        if (length < minLength || length > maxLength) {
+            return NOT_FOUND;
+        }
+
+        int h = 0;
+        for (int i = 0; i < length; i++) {
+            h = 31 * h + fold(text.charAt(i));
+        }
+
+        int folded = NOT_FOUND;
+        int slot = mix(h) & mask;
+        int entry;
+        while ((entry = slots[slot]) != 0) {
+            entry--;
+            if (matches(chars, offsets, entry, text, length)) {
+                return entry;
+            }
+            if (folded == NOT_FOUND && isFoldable(entry) && matchesFolded(chars, offsets, entry, text, length)) {
+                folded = entry;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return folded;
+    }
+
+    /**
+     * @return the category ordinal of an entry returned by {@link #entryOf(CharSequence)}
+     */
+    public int categoryAt(final int entry) {
+        return categories[entry];
+    }
+
+    /**
+     * @return whether an entry returned by {@link #entryOf(CharSequence)} names a class rather than a function
+     */
+    public boolean isClassName(final int entry) {
+        return (flags[entry] & CLASS_NAME) != 0;
+    }
+
+    /**
+     * @return whether an entry returned by {@link #entryOf(CharSequence)} comes from a user mapping rather than
+     * from the built-ins
+     */
+    public boolean isUserDefined(final int entry) {
+        return (flags[entry] & USER_DEFINED) != 0;
+    }
+
+    /**
+     * @return the word of an entry, in the case it was added with; for listing entries, since it allocates
+     */
+    @NotNull
+    String wordAt(final int entry) {
+        final int start = offsets[entry];
+        return new String(chars, start, offsets[entry + 1] - start);
+    }
+
+    /**
+     * @return whether an entry returned by {@link #entryOf(CharSequence)} is a function declared in the PHP stubs,
+     * whatever category it has
+     */
+    public boolean isDeclaredFunction(final int entry) {
+        return (flags[entry] & DECLARED_FUNCTION) != 0;
+    }
+
+    private boolean isFoldable(final int entry) {
+        return CASE_INSENSITIVE[categories[entry]]
+                && (flags[entry] & USER_DEFINED) == 0
+                && (flags[entry] & (DECLARED_FUNCTION | CLASS_NAME)) != 0;
+    }
+
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Type declarations are found by their position rather than looked up, but whether
+     * {@link KeywordCategory#PHP_RETURN_TYPE} is classified at all travels with the table, so that every scanner
+     * given the table sees the same configuration.
+     *
+     * @return whether scanners should look for type declarations
+     */
+    public boolean includesTypeDeclarations() {
+        return typeDeclarations;
+    }
+
+    /**
+     * @return the table of PHPDoc tag names (without the {@code @}) that scanners look up in doc comments, or
+     * {@code null} if doc comments are not scanned
+     */
+    @Nullable
+    public KeywordTable getDocTags() {
+        return docTags;
+    }
+
+    /**
+     * @return this table with {@code tags} as its {@link #getDocTags() doc tags}
+     */
+    @NotNull
+    public KeywordTable withDocTags(@Nullable final KeywordTable tags) {
+        return new KeywordTable(chars, offsets, categories, flags, size(), typeDeclarations, tags);
+    }
+
+    /**
+     * @return whether the table classifies nothing: no identifiers, type declarations or doc tags
+     */
+    public boolean isEmpty() {
+        return size() == 0 && !typeDeclarations && (docTags == null || docTags.size() == 0);
+    }
+
+    /**
+     * @return a table with only the entries of the categories accepted by {@code filter}; type declarations are
+     * kept if this table has them and {@code filter} accepts {@link KeywordCategory#PHP_RETURN_TYPE}, and the doc
+     * tags are filtered the same way
+     */
+    @NotNull
+    public KeywordTable filter(@NotNull final Predicate<KeywordCategory> filter) {
+        final Builder builder = new Builder();
+        for (int entry = 0; entry < size(); entry++) {
+            final KeywordCategory category = KeywordCategory.byOrdinal(categories[entry]);
+            if (filter.test(category)) {
+                final int start = offsets[entry];
+                builder.add(chars, start, offsets[entry + 1] - start, category, (byte) (flags[entry] & (USER_DEFINED | DECLARED_FUNCTION)));
+            }
+        }
+        return builder.build(typeDeclarations && filter.test(KeywordCategory.PHP_RETURN_TYPE))
+                .withDocTags(docTags == null ? null : docTags.filter(filter));
+    }
+
+    private static boolean matches(@NotNull final char[] chars,
+                                   @NotNull final int[] offsets,
+                                   final int entry,
+                                   @NotNull final CharSequence text,
+                                   final int length) {
+        final int start = offsets[entry];
+        if (offsets[entry + 1] - start != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (chars[start + i] != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matchesFolded(@NotNull final char[] chars,
+                                         @NotNull final int[] offsets,
+                                         final int entry,
+                                         @NotNull final CharSequence text,
+                                         final int length) {
+        final int start = offsets[entry];
+        if (offsets[entry + 1] - start != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (fold(chars[start + i]) != fold(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(@NotNull final char[] chars, final int start, final int length) {
+        int h = 0;
+        for (int i = start; i < start + length; i++) {
+            h = 31 * h + fold(chars[i]);
+        }
+        return mix(h);
+    }
+
+    // PHP folds identifiers with ASCII rules only, so other letters are compared as they are
+    private static char fold(final char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    private static int mix(final int h) {
+        return h ^ (h >>> 16);
+    }
+
+    @NotNull
+    private static boolean[] createCaseInsensitive() {
+        final KeywordCategory[] values = KeywordCategory.values();
+        final boolean[] caseInsensitive = new boolean[values.length];
+        for (final KeywordCategory category : values) {
+            caseInsensitive[category.ordinal()] = category.isCaseInsensitive();
+        }
+        return caseInsensitive;
+    }
+
+    private static int capacityFor(final int size) {
+        return Integer.highestOneBit(Math.max(size, 1) * 2 - 1) << 1;
+    }
+
+    private static void insert(@NotNull final int[] slots, final int entry, final int hash) {
+        final int mask = slots.length - 1;
+        int slot = hash & mask;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = entry + 1;
+    }
+
+    /**
+     * Collects entries before they are packed into a table. The first category added for a word wins.
+     */
+    public static final class Builder {
+        private char[] chars = new char[4096];
+        private int[] offsets = new int[512];
+        private byte[] categories = new byte[512];
+        private byte[] flags = new byte[512];
+        private int[] slots = new int[1024];
+        private int size;
+        private int length;
+
+        @NotNull
+        public Builder add(@NotNull final String word, @NotNull final KeywordCategory category) {
+            ensureChars(word.length());
+            word.getChars(0, word.length(), chars, length);
+            return commit(word.length(), category, (byte) 0);
+        }
+
+        /**
+         * Adds a word of a user mapping, which {@link KeywordContext} accepts by rules of its own.
+         */
+        @NotNull
+        public Builder addUserDefined(@NotNull final String word, @NotNull final KeywordCategory category) {
+            ensureChars(word.length());
+            word.getChars(0, word.length(), chars, length);
+            return commit(word.length(), category, USER_DEFINED);
+        }
+
+        /**
+         * Adds the first {@code wordLength} chars of {@code word} without keeping a reference to the array.
+         */
+        @NotNull
+        public Builder add(@NotNull final char[] word, final int wordLength, @NotNull final KeywordCategory category) {
+            return add(word, 0, wordLength, category, (byte) 0);
+        }
+
+        /**
+         * Adds a function declared in the PHP stubs, like {@link #add(char[], int, KeywordCategory)}. A word that is
+         * already known keeps its category and is marked as a declared function.
+         */
+        @NotNull
+        Builder addDeclaredFunction(@NotNull final char[] word, final int wordLength, @NotNull final KeywordCategory category) {
+            return add(word, 0, wordLength, category, DECLARED_FUNCTION);
+        }
+
+        @NotNull
+        private Builder add(@NotNull final char[] source,
+                            final int start,
+                            final int wordLength,
+                            @NotNull final KeywordCategory category,
+                            final byte extraFlags) {
+            ensureChars(wordLength);
+            System.arraycopy(source, start, chars, length, wordLength);
+            return commit(wordLength, category, extraFlags);
+        }
+
+        @NotNull
+        public Builder addAll(@NotNull final KeywordCategory category) {
+            for (final String word : category.getWords()) {
+                add(word, category);
+            }
+            return this;
+        }
+
+        @NotNull
+        public KeywordTable build() {
+            return build(true);
+        }
+
+        @NotNull
+        KeywordTable build(final boolean typeDeclarations) {
+            return new KeywordTable(Arrays.copyOf(chars, length),
+                    Arrays.copyOf(offsets, size + 1),
+                    Arrays.copyOf(categories, size),
+                    Arrays.copyOf(flags, size),
+                    size,
+                    typeDeclarations,
+                    null);
+        }
+
+        private void ensureChars(final int wordLength) {
+            if (length + wordLength > chars.length) {
+                chars = Arrays.copyOf(chars, Math.max(chars.length * 2, length + wordLength));
+            }
+        }
+
+        // The word has been copied to the end of the pool; keep it unless it is empty or already known, in which
+        // case only its declared function flag is merged
+        @NotNull
+        private Builder commit(final int wordLength, @NotNull final KeywordCategory category, final byte extraFlags) {
+            if (wordLength == 0) {
+                return this;
+            }
+            final int known = find(length, wordLength);
+            if (known != NOT_FOUND) {
+                flags[known] |= extraFlags & DECLARED_FUNCTION;
+                return this;
+            }
+
+            if (size + 2 > offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                categories = Arrays.copyOf(categories, categories.length * 2);
+                flags = Arrays.copyOf(flags, flags.length * 2);
+            }
+            offsets[size] = length;
+            categories[size] = (byte) category.ordinal();
+            flags[size] = (byte) (extraFlags | (Character.isUpperCase(chars[length]) ? CLASS_NAME : 0));
+            length += wordLength;
+            offsets[size + 1] = length;
+
+            if ((size + 1) * 2 > slots.length) {
+                slots = new int[slots.length * 2];
+                for (int entry = 0; entry < size; entry++) {
+                    insert(slots, entry, hash(chars, offsets[entry], offsets[entry + 1] - offsets[entry]));
+                }
+            }
+            insert(slots, size, hash(chars, offsets[size], wordLength));
+            size++;
+            return this;
+        }
+
+        private int find(final int start, final int wordLength) {
+            final int mask = slots.length - 1;
+            int slot = hash(chars, start, wordLength) & mask;
+            int entry;
+            while ((entry = slots[slot]) != 0) {
+                entry--;
+                final int entryStart = offsets[entry];
+                if (offsets[entry + 1] - entryStart == wordLength
+                        && Arrays.equals(chars, entryStart, entryStart + wordLength, chars, start, start + wordLength)) {
+                    return entry;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return NOT_FOUND;
+        }
+    }
+
+    private static final class BuiltIns {
+        static final KeywordTable TABLE = createBuiltIns();
+
+        private static KeywordTable createBuiltIns() {
+            final long start = System.nanoTime();
+            final KeywordTable table = addBuiltIns(new Builder()).build().withDocTags(DocTags.builtIns());
+            HighlightingStats.recordInitialization("Built-in keyword table", System.nanoTime() - start);
+            return table;
+        }
+    }
+
+    /**
+     * Adds the identifiers of {@link #builtIns()} to {@code builder}, after anything it already holds.
+     */
+    @NotNull
+    static Builder addBuiltIns(@NotNull final Builder builder) {
+        for (final KeywordCategory category : KeywordCategory.values()) {
+            builder.addAll(category);
+        }
+        PhpFunctionDictionary.load(builder);
+        return builder;
+    }
+
+    /**
+     * @return the table of the identifiers bundled with the plugin: the words of {@link KeywordCategory} first,
+     * then the functions of the generated PHP function dictionary; with the built-in {@link DocTags}
+     */
+    @NotNull
+    public static KeywordTable builtIns() {
+        return BuiltIns.TABLE;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
+import com.intellij.openapi.fileEditor.FileEditor;
+import com.intellij.openapi.options.ShowSettingsUtil;
+import com.intellij.openapi.project.DumbAware;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.ui.EditorNotificationPanel;
+import com.intellij.ui.EditorNotifications;
+import com.jsonjuri.phpSyntaxColorHighlighter.settings.CodeColorConfigurable;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Explains in the editor why a PHP file gets fewer keyword colors than usual (see {@link LargeFiles}).
+ */
+@SuppressWarnings("HardCodedStringLiteral")
+public final class LargeFileNotificationProvider extends EditorNotifications.Provider<EditorNotificationPanel> implements DumbAware {
+    private static final Key<EditorNotificationPanel> KEY = Key.create("PHP_SYNTAX_COLOR_LARGE_FILE");
+
+    @Override
+    public @NotNull Key<EditorNotificationPanel> getKey() {
+        return KEY;
+    }
+
+    @Override
+    public @Nullable EditorNotificationPanel createNotificationPanel(@NotNull final VirtualFile file,
+                                                                     @NotNull final FileEditor fileEditor,
+                                                                     @NotNull final Project project) {
+        final PsiFile psiFile = PsiManager.getInstance(project).findFile(file);
+        final PsiFile phpFile = psiFile == null ? null : FileKeywordScanner.getPhpFile(psiFile);
+        final String description = phpFile == null ? null : LargeFiles.describe(phpFile);
+        if (description == null) {
+            return null;
+        }
+
+        final EditorNotificationPanel panel = new EditorNotificationPanel(fileEditor);
+        panel.setText(description);
+        panel.createActionLabel("Highlight fully", () -> {
+            LargeFiles.highlightFully(file);
+            EditorNotifications.getInstance(project).updateNotifications(file);
+            DaemonCodeAnalyzer.getInstance(project).restart(psiFile);
+        });
+        panel.createActionLabel("Settings", () -> ShowSettingsUtil.getInstance().showSettingsDialog(project, CodeColorConfigurable.class));
+        return panel;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import com.intellij.ide.PowerSaveMode;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.jsonjuri.phpSyntaxColorHighlighter.settings.CodeColorOptions;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Adaptive highlighting for large files and Power Save Mode.
+ * <p>
+ * A file is large when its length or its token count (as of its last full scan) exceeds the thresholds in the
+ * settings; it is then highlighted at the configured {@link CodeColorOptions#largeFileLevel}. Power Save Mode lowers
+ * every file by one more level. {@link LargeFileNotificationProvider} shows an editor banner whenever a file is not
+ * highlighted in full, and a file can be switched back to full highlighting from there for the session.
+ */
+public final class LargeFiles {
+    private static final Key<Boolean> FULL_HIGHLIGHTING = Key.create("PHP_SYNTAX_COLOR_FULL_HIGHLIGHTING");
+
+    private LargeFiles() {
+    }
+
+    @NotNull
+    public static HighlightingLevel getLevel(@NotNull final PsiFile file) {
+        final CodeColorOptions options = CodeColorOptions.getInstance();
+        final VirtualFile virtualFile = file.getViewProvider().getVirtualFile();
+        if (virtualFile.getUserData(FULL_HIGHLIGHTING) == Boolean.TRUE) {
+            return HighlightingLevel.FULL;
+        }
+
+        HighlightingLevel level = HighlightingLevel.FULL;
+        if (options.adaptiveLargeFiles && isLarge(file, options)) {
+            level = options.largeFileLevel;
+        }
+        if (PowerSaveMode.isEnabled()) {
+            level = level == HighlightingLevel.FULL ? HighlightingLevel.KEYWORDS_ONLY : HighlightingLevel.OFF;
+        }
+        return level;
+    }
+
+    /**
+     * @return the keyword table for the file's level, or the full table if the file is not highlighted at all
+     */
+    @NotNull
+    static KeywordTable getKeywordTable(@NotNull final PsiFile file) {
+        final CodeColorOptions options = CodeColorOptions.getInstance();
+        return getLevel(file) == HighlightingLevel.KEYWORDS_ONLY ? options.getLanguageKeywordTable() : options.getKeywordTable();
+    }
+
+    static void highlightFully(@NotNull final VirtualFile file) {
+        file.putUserData(FULL_HIGHLIGHTING, Boolean.TRUE);
+    }
+
+    /**
+     * @return why the file is not highlighted in full, or {@code null} if it is
+     */
+    @SuppressWarnings("HardCodedStringLiteral")
+    @Nullable
+    static String describe(@NotNull final PsiFile file) {
+        final HighlightingLevel level = getLevel(file);
+        if (level == HighlightingLevel.FULL) {
+            return null;
+        }
+
+        final String reason;
+        if (PowerSaveMode.isEnabled() && !isLarge(file, CodeColorOptions.getInstance())) {
+            reason = "Power Save Mode is on";
+        } else {
+            reason = "This is a large file (" + file.getTextLength() / 1024 + " KB" + (PowerSaveMode.isEnabled() ? ", Power Save Mode is on" : "") + ")";
+        }
+        return level == HighlightingLevel.OFF
+                ? reason + ": PHP keyword colors are turned off."
+                : reason + ": only language keywords and types get PHP keyword colors.";
+    }
+
+    private static boolean isLarge(@NotNull final PsiFile file, @NotNull final CodeColorOptions options) {
+        return file.getTextLength() > options.largeFileLength || KeywordHighlightCache.getTokenCount(file) > options.largeFileTokens;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Reader of the PHP function dictionary generated from the vendored phpstorm-stubs declarations at build time
+ * (see the {@code generatePhpFunctionDictionary} task in {@code build.gradle.kts}).
+ * <p>
+ * Entries are streamed straight into a {@link KeywordTable.Builder} through one reused buffer, so loading
+ * creates no object per function.
+ */
+final class PhpFunctionDictionary {
+    private static final String RESOURCE = "/dictionary/phpFunctions.bin";
+    private static final int MAGIC = 0x50485046;
+    private static final int VERSION = 1;
+
+    private PhpFunctionDictionary() {
+    }
+
+    static void load(@NotNull final KeywordTable.Builder builder) {
+        final InputStream stream = PhpFunctionDictionary.class.getResourceAsStream(RESOURCE);
+        if (stream == null) {
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(stream))) {
+            if (in.readInt() != MAGIC || in.readUnsignedByte() != VERSION) {
+                throw new IllegalStateException("Unsupported PHP function dictionary: " + RESOURCE);
+            }
+
+            final KeywordCategory[] categories = new KeywordCategory[in.readUnsignedByte()];
+            for (int i = 0; i < categories.length; i++) {
+                categories[i] = findCategory(in.readUTF());
+            }
+
+            final char[] buffer = new char[255];
+            final int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                final KeywordCategory category = categories[in.readUnsignedByte()];
+                final int length = in.readUnsignedByte();
+                for (int c = 0; c < length; c++) {
+                    buffer[c] = (char) in.readUnsignedByte();
+                }
+                if (category != null) {
+                    builder.addDeclaredFunction(buffer, length, category);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read the PHP function dictionary", e);
+        }
+    }
+
+    @Nullable
+    private static KeywordCategory findCategory(@NotNull final String name) {
+        for (final KeywordCategory category : KeywordCategory.values()) {
+            if (category.name().equals(name)) {
+                return category;
+            }
+        }
+        return null;
+    }
+}
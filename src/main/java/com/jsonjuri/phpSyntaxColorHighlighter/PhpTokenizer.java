@@ -0,0 +1,281 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Minimal PHP tokenizer for highlighting outside the IDE, where there is no PHP lexer or PSI.
+ * <p>
+ * It only separates what the classifier needs: names, variables, strings, comments and punctuation. Like
+ * a platform lexer it is advanced token by token and exposes offsets, so it creates no object per token.
+ */
+public final class PhpTokenizer {
+    public static final int END = -1;
+    public static final int INLINE_HTML = 0;
+    public static final int WHITESPACE = 1;
+    public static final int COMMENT = 2;
+    public static final int STRING = 3;
+    public static final int VARIABLE = 4;
+    public static final int NAME = 5;
+    public static final int NUMBER = 6;
+    public static final int PUNCTUATION = 7;
+
+    private static final String[] OPERATORS = {"?->", "...", "->", "=>", "::", "#[", "??", "||", "&&", "==", "!=", "<=", ">="};
+
+    private CharSequence text = "";
+    private int end;
+    private boolean inPhp;
+    private int tokenKind = END;
+    private int tokenStart;
+    private int tokenEnd;
+
+    public void start(@NotNull final CharSequence text) {
+        this.text = text;
+        this.end = text.length();
+        this.inPhp = false;
+        this.tokenKind = END;
+        this.tokenStart = 0;
+        this.tokenEnd = 0;
+    }
+
+    /**
+     * Moves to the next token.
+     *
+     * @return the kind of the new token, or {@link #END}
+     */
+    public int advance() {
+        tokenStart = tokenEnd;
+        if (tokenStart >= end) {
+            tokenKind = END;
+            return END;
+        }
+
+        tokenKind = inPhp ? scanPhp(tokenStart) : scanHtml(tokenStart);
+        return tokenKind;
+    }
+
+    public int getTokenKind() {
+        return tokenKind;
+    }
+
+    public int getTokenStart() {
+        return tokenStart;
+    }
+
+    public int getTokenEnd() {
+        return tokenEnd;
+    }
+
+    private int scanHtml(final int start) {
+        int i = start;
+        while (i < end) {
+            if (startsWith(i, "<?php")) {
+                if (i > start) {
+                    break;
+                }
+                return open(i + 5);
+            }
+            if (startsWith(i, "<?=")) {
+                if (i > start) {
+                    break;
+                }
+                return open(i + 3);
+            }
+            i++;
+        }
+        tokenEnd = i;
+        return INLINE_HTML;
+    }
+
+    private int open(final int afterTag) {
+        inPhp = true;
+        tokenEnd = afterTag;
+        return PUNCTUATION;
+    }
+
+    private int scanPhp(final int start) {
+        final char c = text.charAt(start);
+
+        if (Character.isWhitespace(c)) {
+            int i = start + 1;
+            while (i < end && Character.isWhitespace(text.charAt(i))) {
+                i++;
+            }
+            tokenEnd = i;
+            return WHITESPACE;
+        }
+
+        if (startsWith(start, "?>")) {
+            inPhp = false;
+            tokenEnd = start + 2;
+            return PUNCTUATION;
+        }
+
+        if (c == '/' && start + 1 < end && text.charAt(start + 1) == '*') {
+            final int close = indexOf("*/", start + 2);
+            tokenEnd = close < 0 ? end : close + 2;
+            return COMMENT;
+        }
+
+        if ((c == '/' && start + 1 < end && text.charAt(start + 1) == '/') || (c == '#' && !startsWith(start, "#["))) {
+            int i = start + 1;
+            while (i < end && text.charAt(i) != '\n' && !startsWith(i, "?>")) {
+                i++;
+            }
+            tokenEnd = i;
+            return COMMENT;
+        }
+
+        if (c == '\'' || c == '"' || c == '`') {
+            int i = start + 1;
+            while (i < end && text.charAt(i) != c) {
+                i += text.charAt(i) == '\\' ? 2 : 1;
+            }
+            tokenEnd = Math.min(i + 1, end);
+            return STRING;
+        }
+
+        if (startsWith(start, "<<<")) {
+            return scanHeredoc(start);
+        }
+
+        if (c == '$' && start + 1 < end && isNameStart(text.charAt(start + 1))) {
+            tokenEnd = skipName(start + 1);
+            return VARIABLE;
+        }
+
+        if (isNameStart(c)) {
+            tokenEnd = skipName(start);
+            return NAME;
+        }
+
+        if (c >= '0' && c <= '9') {
+            int i = start + 1;
+            while (i < end && (Character.isLetterOrDigit(text.charAt(i)) || text.charAt(i) == '_' || text.charAt(i) == '.')) {
+                i++;
+            }
+            tokenEnd = i;
+            return NUMBER;
+        }
+
+        for (final String operator : OPERATORS) {
+            if (startsWith(start, operator)) {
+                tokenEnd = start + operator.length();
+                return PUNCTUATION;
+            }
+        }
+        tokenEnd = start + 1;
+        return PUNCTUATION;
+    }
+
+    private int scanHeredoc(final int start) {
+        int i = start + 3;
+        while (i < end && (text.charAt(i) == ' ' || text.charAt(i) == '\t')) {
+            i++;
+        }
+        final boolean quoted = i < end && (text.charAt(i) == '\'' || text.charAt(i) == '"');
+        if (quoted) {
+            i++;
+        }
+        final int labelStart = i;
+        final int labelEnd = skipName(i);
+        if (labelEnd == labelStart) {
+            tokenEnd = start + 3;
+            return PUNCTUATION;
+        }
+
+        i = labelEnd;
+        while (i < end) {
+            final int lineStart = indexOf("\n", i);
+            if (lineStart < 0) {
+                break;
+            }
+            int j = lineStart + 1;
+            while (j < end && (text.charAt(j) == ' ' || text.charAt(j) == '\t')) {
+                j++;
+            }
+            if (regionMatches(j, labelStart, labelEnd - labelStart)
+                    && (j + labelEnd - labelStart >= end || !isNamePart(text.charAt(j + labelEnd - labelStart)))) {
+                tokenEnd = j + labelEnd - labelStart;
+                return STRING;
+            }
+            i = lineStart + 1;
+        }
+        tokenEnd = end;
+        return STRING;
+    }
+
+    private int skipName(final int start) {
+        int i = start;
+        while (i < end && isNamePart(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isNameStart(final char c) {
+        return c == '_' || c >= 0x80 || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isNamePart(final char c) {
+        return isNameStart(c) || (c >= '0' && c <= '9');
+    }
+
+    private boolean startsWith(final int offset, @NotNull final String prefix) {
+        if (offset + prefix.length() > end) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (text.charAt(offset + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean regionMatches(final int offset, final int otherOffset, final int length) {
+        if (offset + length > end) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (text.charAt(offset + i) != text.charAt(otherOffset + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int indexOf(@NotNull final String needle, final int from) {
+        for (int i = from; i <= end - needle.length(); i++) {
+            if (startsWith(i, needle)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.startup.StartupActivity;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.jsonjuri.phpSyntaxColorHighlighter.settings.CodeColorOptions;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Fills the {@link KeywordHighlightCache} of the PHP files restored in editor tabs when a project opens, so the
+ * first switch to a tab only applies the cached keywords.
+ * <p>
+ * Each file is classified in its own non-blocking read action on a small bounded pool: a write action cancels it
+ * and it is restarted afterwards, and it is dropped when the project closes.
+ */
+public final class PrewarmStartupActivity implements StartupActivity.Background {
+    private static final Executor EXECUTOR = AppExecutorUtil.createBoundedApplicationPoolExecutor("PHP Color Highlighter Prewarm", 2);
+
+    @Override
+    public void runActivity(@NotNull final Project project) {
+        final CodeColorOptions options = CodeColorOptions.getInstance();
+        if (!options.prewarmOpenFiles || options.isEveryCategoryDisabled()) {
+            return;
+        }
+
+        for (final VirtualFile file : FileEditorManager.getInstance(project).getOpenFiles()) {
+            ReadAction.nonBlocking(() -> prewarm(project, file))
+                    .expireWith(project)
+                    .submit(EXECUTOR);
+        }
+    }
+
+    private static void prewarm(@NotNull final Project project, @NotNull final VirtualFile file) {
+        if (!file.isValid()) {
+            return;
+        }
+        final PsiFile psiFile = PsiManager.getInstance(project).findFile(file);
+        final PsiFile phpFile = psiFile == null ? null : FileKeywordScanner.getPhpFile(psiFile);
+        if (phpFile == null || LargeFiles.getLevel(phpFile) == HighlightingLevel.OFF || KeywordHighlightCache.isUpToDate(phpFile)) {
+            return;
+        }
+
+        final long start = System.nanoTime();
+        KeywordHighlightCache.update(phpFile, null);
+        HighlightingStats.recordInitialization("Open PHP files classified in the background", System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Text counterpart of {@link FileKeywordScanner} for use outside the IDE: classifies PHP source with the same
+ * tables and type scanner, over the tokens of a {@link PhpTokenizer}.
+ */
+public final class TextKeywordScanner {
+    private final PhpTokenizer tokenizer = new PhpTokenizer();
+    private final CharWindow window = new CharWindow();
+    private final DocTagScanner docTagScanner = new DocTagScanner();
+    private final KeywordTable table;
+
+    public TextKeywordScanner() {
+        this(KeywordTable.builtIns());
+    }
+
+    public TextKeywordScanner(@NotNull final KeywordTable table) {
+        this.table = table;
+    }
+
+    public void scan(@NotNull final CharSequence text, @NotNull final KeywordSink sink) {
+        final TypeDeclarationScanner types = new TypeDeclarationScanner();
+        final boolean scanTypes = table.includesTypeDeclarations();
+        final KeywordTable docTags = table.getDocTags();
+        final int typeCategory = KeywordCategory.PHP_RETURN_TYPE.ordinal();
+
+        tokenizer.start(text);
+        int kind;
+        while ((kind = tokenizer.advance()) != PhpTokenizer.END) {
+            final int start = tokenizer.getTokenStart();
+            final int end = tokenizer.getTokenEnd();
+            if (kind == PhpTokenizer.COMMENT) {
+                if (docTags != null && DocTagScanner.isDocComment(text, start, end)) {
+                    docTagScanner.scan(text, start, end, docTags, sink);
+                }
+                continue;
+            }
+            if (kind == PhpTokenizer.WHITESPACE || kind == PhpTokenizer.INLINE_HTML) {
+                continue;
+            }
+
+            window.set(text, start, end);
+            if (scanTypes && types.isType(window)) {
+                sink.accept(start, end, typeCategory);
+            } else if (kind == PhpTokenizer.NAME) {
+                final int category = table.categoryOf(window);
+                if (category != KeywordTable.NOT_FOUND) {
+                    sink.accept(start, end, category);
+                }
+            }
+        }
+        window.clear();
+    }
+}
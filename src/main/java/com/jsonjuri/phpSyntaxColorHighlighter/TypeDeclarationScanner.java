@@ -0,0 +1,252 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Finds the names of parameter and return type declarations ({@code ?T}, {@code A|B}, {@code A&B} and DNF types
+ * like {@code (A&B)|null}) in a stream of PHP tokens.
+ * <p>
+ * Tokens are fed one at a time, without whitespace and comments, and each one costs a constant amount of work,
+ * so a union of {@code n} types costs {@code O(n)}. The scanner holds no references to the tokens.
+ */
+public final class TypeDeclarationScanner {
+    private static final byte OTHER = 0;
+    private static final byte PARAMETERS = 1;
+    private static final byte USE_LIST = 2;
+    private static final byte TYPE_GROUP = 3;
+    private static final byte ATTRIBUTE = 4;
+
+    private byte[] frames = new byte[32];
+    private int depth;
+
+    private boolean functionPending;
+    private boolean functionNamed;
+    private boolean usePending;
+    private boolean afterParameters;
+    private boolean parameterType;
+    private boolean returnType;
+    private int returnTypeGroups;
+    private boolean atBoundary = true;
+
+    /**
+     * Feeds the next significant token.
+     *
+     * @return whether the token is a type name
+     */
+    public boolean isType(@NotNull final CharSequence token) {
+        atBoundary = false;
+
+        if (returnType) {
+            if (isOneOf(token, '?', '|', '&', '\\')) {
+                return false;
+            }
+            if (is(token, '(')) {
+                returnTypeGroups++;
+                return false;
+            }
+            if (is(token, ')') && returnTypeGroups > 0) {
+                returnTypeGroups--;
+                return false;
+            }
+            if (isName(token)) {
+                return true;
+            }
+            returnType = false;
+            returnTypeGroups = 0;
+        }
+
+        if (afterParameters) {
+            afterParameters = false;
+            if (is(token, ':')) {
+                returnType = true;
+                return false;
+            }
+            if (equals(token, "use")) {
+                usePending = true;
+                return false;
+            }
+        }
+
+        if (functionPending) {
+            if (is(token, '&')) {
+                return false;
+            }
+            if (is(token, '(')) {
+                functionPending = false;
+                push(PARAMETERS);
+                parameterType = true;
+                return false;
+            }
+            if (!functionNamed && isName(token)) {
+                functionNamed = true;
+                return false;
+            }
+            functionPending = false;
+        }
+
+        if (usePending) {
+            usePending = false;
+            if (is(token, '(')) {
+                push(USE_LIST);
+                return false;
+            }
+        }
+
+        if (equals(token, "function") || equals(token, "fn")) {
+            functionPending = true;
+            functionNamed = false;
+            return false;
+        }
+
+        final byte frame = top();
+        if (parameterType && (frame == PARAMETERS || frame == TYPE_GROUP)) {
+            if (isOneOf(token, '?', '|', '&', '\\')) {
+                return false;
+            }
+            if (is(token, '(')) {
+                push(TYPE_GROUP);
+                return false;
+            }
+            if (is(token, ')') && frame == TYPE_GROUP) {
+                pop();
+                return false;
+            }
+            if (isModifier(token)) {
+                return false;
+            }
+            if (token.length() > 0 && token.charAt(0) != '$' && isName(token)) {
+                return true;
+            }
+            parameterType = false;
+        }
+
+        if (frame == PARAMETERS && is(token, ',')) {
+            parameterType = true;
+            return false;
+        }
+
+        if (is(token, '(') || is(token, '[') || is(token, '{')) {
+            push(OTHER);
+        } else if (equals(token, "#[")) {
+            push(ATTRIBUTE);
+        } else if (is(token, ')') || is(token, ']') || is(token, '}')) {
+            final byte closed = pop();
+            if (closed == PARAMETERS || closed == USE_LIST) {
+                afterParameters = true;
+                parameterType = false;
+            } else if (closed == ATTRIBUTE && top() == PARAMETERS) {
+                parameterType = true;
+            }
+        }
+
+        atBoundary = is(token, ';') || is(token, '{') || is(token, '}');
+        return false;
+    }
+
+    /**
+     * @return whether the last token left the scanner in a state that a fresh scanner would reproduce, so a scan
+     * may stop or start right after it
+     */
+    public boolean isAtBoundary() {
+        return atBoundary;
+    }
+
+    /**
+     * @return whether no declaration is in progress and the innermost open bracket is not a parameter list, type
+     * group or attribute, so that the next token is read as a fresh scanner inside a plain bracket would read it
+     */
+    public boolean isIdle() {
+        final byte frame = top();
+        return !functionPending && !usePending && !afterParameters && !parameterType && !returnType && frame == OTHER;
+    }
+
+    /**
+     * @return whether {@code token} is a statement or block boundary that a scan may restart after
+     */
+    public static boolean isBoundary(@NotNull final CharSequence token) {
+        return is(token, ';') || is(token, '{') || is(token, '}');
+    }
+
+    public static boolean isName(@NotNull final CharSequence token) {
+        if (token.length() == 0) {
+            return false;
+        }
+        final char first = token.charAt(0);
+        if (first == '\\') {
+            return token.length() > 1;
+        }
+        return first == '_' || first >= 0x80 || Character.isLetter(first);
+    }
+
+    private static boolean isModifier(@NotNull final CharSequence token) {
+        return equals(token, "public") || equals(token, "protected") || equals(token, "private") || equals(token, "readonly");
+    }
+
+    private void push(final byte frame) {
+        if (depth == frames.length) {
+            frames = Arrays.copyOf(frames, depth * 2);
+        }
+        frames[depth++] = frame;
+    }
+
+    private byte pop() {
+        return depth == 0 ? OTHER : frames[--depth];
+    }
+
+    private byte top() {
+        return depth == 0 ? OTHER : frames[depth - 1];
+    }
+
+    private static boolean is(@NotNull final CharSequence token, final char c) {
+        return token.length() == 1 && token.charAt(0) == c;
+    }
+
+    private static boolean isOneOf(@NotNull final CharSequence token, final char a, final char b, final char c, final char d) {
+        if (token.length() != 1) {
+            return false;
+        }
+        final char first = token.charAt(0);
+        return first == a || first == b || first == c || first == d;
+    }
+
+    private static boolean equals(@NotNull final CharSequence token, @NotNull final String text) {
+        final int length = text.length();
+        if (token.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (token.charAt(i) != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter.cli;
+
+import com.jsonjuri.phpSyntaxColorHighlighter.TextKeywordScanner;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Highlights a tree of PHP files outside the IDE, with the same classification and bundled colors as the plugin.
+ * <pre>
+ * HighlightCli [--format html|ansi] [--scheme default|darcula] [--output dir] source...
+ * </pre>
+ * Files are processed in parallel on a fork-join pool with one worker per core. HTML output is written next to
+ * the mirrored source path in the output directory; ANSI output goes to the output directory when one is given
+ * and to standard output otherwise.
+ */
+@SuppressWarnings({"HardCodedStringLiteral", "UseOfSystemOutOrSystemErr"})
+public final class HighlightCli {
+    private static final int FILES_PER_TASK = 8;
+    private static final int USAGE_ERROR = 2;
+
+    private final OutputFormat format;
+    private final SchemeColors colors;
+    @Nullable
+    private final Path output;
+    private final ThreadLocal<TextKeywordScanner> scanners = ThreadLocal.withInitial(TextKeywordScanner::new);
+    private final AtomicInteger failures = new AtomicInteger();
+
+    private HighlightCli(@NotNull final OutputFormat format, @NotNull final SchemeColors colors, @Nullable final Path output) {
+        this.format = format;
+        this.colors = colors;
+        this.output = output;
+    }
+
+    public static void main(final String[] args) throws Exception {
+        OutputFormat format = OutputFormat.HTML;
+        String scheme = "default";
+        Path output = null;
+        final List<Path> sources = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            final String arg = args[i];
+            if ("--format".equals(arg) && i + 1 < args.length) {
+                format = OutputFormat.find(args[++i]);
+                if (format == null) {
+                    usageError("unknown format '" + args[i] + "'");
+                }
+            } else if ("--scheme".equals(arg) && i + 1 < args.length) {
+                scheme = args[++i];
+                if (!"default".equalsIgnoreCase(scheme) && !"darcula".equalsIgnoreCase(scheme)) {
+                    usageError("unknown scheme '" + scheme + "'");
+                }
+            } else if ("--output".equals(arg) && i + 1 < args.length) {
+                output = Paths.get(args[++i]);
+            } else if (arg.startsWith("--")) {
+                usageError("unknown option '" + arg + "'");
+            } else {
+                sources.add(Paths.get(arg));
+            }
+        }
+        if (sources.isEmpty()) {
+            usageError("no source given");
+        }
+        if (format == OutputFormat.HTML && output == null) {
+            usageError("HTML output requires --output");
+        }
+        for (final Path source : sources) {
+            if (!Files.exists(source)) {
+                usageError("no such file or directory '" + source + "'");
+            }
+        }
+
+        final HighlightCli cli = new HighlightCli(format, SchemeColors.load(scheme), output);
+        final long start = System.nanoTime();
+        int files = 0;
+        for (final Path source : sources) {
+            files += cli.run(source);
+        }
+        System.err.printf(Locale.ROOT, "Highlighted %d files in %d ms%n", files, (System.nanoTime() - start) / 1_000_000);
+        if (cli.failures.get() > 0) {
+            System.err.printf(Locale.ROOT, "%d files could not be highlighted%n", cli.failures.get());
+            System.exit(1);
+        }
+    }
+
+    private int run(@NotNull final Path source) throws IOException {
+        // Both the root and the walked files are absolute, so that every file can be relativized against the root
+        final Path absolute = source.toAbsolutePath().normalize();
+        final Path root = Files.isDirectory(absolute) ? absolute : absolute.getParent();
+        final List<Path> files;
+        try (final Stream<Path> paths = Files.walk(absolute)) {
+            files = paths.filter(path -> path.getFileName().toString().endsWith(".php") && Files.isRegularFile(path))
+                    .collect(Collectors.toList());
+        }
+
+        final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try {
+            pool.invoke(new HighlightTask(root, files, 0, files.size()));
+        } finally {
+            pool.shutdown();
+        }
+        return files.size();
+    }
+
+    private void highlight(@NotNull final Path root, @NotNull final Path file) {
+        try {
+            final String text = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            final String relative = root.relativize(file).toString();
+            final StringBuilder out = new StringBuilder(text.length() * 2);
+            format.render(out, scanners.get(), colors, relative, text);
+
+            if (output == null) {
+                final PrintStream stdout = System.out;
+                synchronized (stdout) {
+                    stdout.append(out);
+                }
+            } else {
+                final Path target = output.resolve(relative + '.' + format.getExtension());
+                Files.createDirectories(target.getParent());
+                Files.write(target, out.toString().getBytes(StandardCharsets.UTF_8));
+            }
+        } catch (final IOException | RuntimeException e) {
+            failures.incrementAndGet();
+            System.err.println(file + ": " + e);
+        }
+    }
+
+    private static void usageError(@NotNull final String problem) {
+        System.err.println("HighlightCli: " + problem);
+        System.err.println("Usage: HighlightCli [--format html|ansi] [--scheme default|darcula] [--output dir] source...");
+        System.err.println("HTML output requires --output.");
+        System.exit(USAGE_ERROR);
+    }
+
+    private final class HighlightTask extends RecursiveAction {
+        private final Path root;
+        private final List<Path> files;
+        private final int from;
+        private final int to;
+
+        HighlightTask(@NotNull final Path root, @NotNull final List<Path> files, final int from, final int to) {
+            this.root = root;
+            this.files = files;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= FILES_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    highlight(root, files.get(i));
+                }
+                return;
+            }
+            final int middle = (from + to) >>> 1;
+            invokeAll(new HighlightTask(root, files, from, middle), new HighlightTask(root, files, middle, to));
+        }
+    }
+}
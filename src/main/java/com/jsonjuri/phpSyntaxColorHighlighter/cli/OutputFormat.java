@@ -0,0 +1,212 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter.cli;
+
+import com.jsonjuri.phpSyntaxColorHighlighter.KeywordCategory;
+import com.jsonjuri.phpSyntaxColorHighlighter.KeywordSink;
+import com.jsonjuri.phpSyntaxColorHighlighter.TextKeywordScanner;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Locale;
+
+/**
+ * Renders classified PHP source. Highlights arrive in offset order, so the text is copied once, in between.
+ */
+@SuppressWarnings("HardCodedStringLiteral")
+enum OutputFormat {
+    HTML("html") {
+        @Override
+        void begin(@NotNull final StringBuilder out, @NotNull final SchemeColors colors, @NotNull final String title) {
+            out.append("<!DOCTYPE html>\n<html><head><meta charset=\"utf-8\"><title>");
+            escape(out, title, 0, title.length());
+            out.append("</title><style>pre{background:")
+                    .append(colors.isDark() ? "#2b2b2b;color:#a9b7c6" : "#ffffff;color:#000000")
+                    .append('}');
+            for (final KeywordCategory category : KeywordCategory.values()) {
+                final int ordinal = category.ordinal();
+                out.append(".c").append(ordinal).append('{');
+                if (colors.getForeground(ordinal) != SchemeColors.NO_COLOR) {
+                    out.append("color:#").append(String.format(Locale.ROOT, "%06x", colors.getForeground(ordinal))).append(';');
+                }
+                if (colors.isBold(ordinal)) {
+                    out.append("font-weight:bold;");
+                }
+                if (colors.isItalic(ordinal)) {
+                    out.append("font-style:italic;");
+                }
+                out.append('}');
+            }
+            out.append("</style></head><body><pre>");
+        }
+
+        @Override
+        void text(@NotNull final StringBuilder out, @NotNull final CharSequence text, final int start, final int end) {
+            escape(out, text, start, end);
+        }
+
+        @Override
+        void highlight(@NotNull final StringBuilder out,
+                       @NotNull final SchemeColors colors,
+                       @NotNull final CharSequence text,
+                       final int start,
+                       final int end,
+                       final int category) {
+            out.append("<span class=\"c").append(category).append("\">");
+            escape(out, text, start, end);
+            out.append("</span>");
+        }
+
+        @Override
+        void end(@NotNull final StringBuilder out) {
+            out.append("</pre></body></html>\n");
+        }
+    },
+
+    ANSI("ansi") {
+        @Override
+        void begin(@NotNull final StringBuilder out, @NotNull final SchemeColors colors, @NotNull final String title) {
+            out.append("\u001b[1m==> ").append(title).append(" <==\u001b[0m\n");
+        }
+
+        @Override
+        void text(@NotNull final StringBuilder out, @NotNull final CharSequence text, final int start, final int end) {
+            out.append(text, start, end);
+        }
+
+        @Override
+        void highlight(@NotNull final StringBuilder out,
+                       @NotNull final SchemeColors colors,
+                       @NotNull final CharSequence text,
+                       final int start,
+                       final int end,
+                       final int category) {
+            final int rgb = colors.getForeground(category);
+            out.append("\u001b[");
+            if (colors.isBold(category)) {
+                out.append("1;");
+            }
+            if (colors.isItalic(category)) {
+                out.append("3;");
+            }
+            if (rgb == SchemeColors.NO_COLOR) {
+                out.append("39m");
+            } else {
+                out.append("38;2;").append(rgb >> 16).append(';').append((rgb >> 8) & 0xFF).append(';').append(rgb & 0xFF).append('m');
+            }
+            out.append(text, start, end).append("\u001b[0m");
+        }
+
+        @Override
+        void end(@NotNull final StringBuilder out) {
+            out.append('\n');
+        }
+    };
+
+    private final String extension;
+
+    OutputFormat(@NotNull final String extension) {
+        this.extension = extension;
+    }
+
+    @NotNull
+    String getExtension() {
+        return extension;
+    }
+
+    /**
+     * @return the format named {@code name} (its extension, in any case), or {@code null} if there is none
+     */
+    @Nullable
+    static OutputFormat find(@NotNull final String name) {
+        for (final OutputFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    abstract void begin(@NotNull StringBuilder out, @NotNull SchemeColors colors, @NotNull String title);
+
+    abstract void text(@NotNull StringBuilder out, @NotNull CharSequence text, int start, int end);
+
+    abstract void highlight(@NotNull StringBuilder out, @NotNull SchemeColors colors, @NotNull CharSequence text, int start, int end, int category);
+
+    abstract void end(@NotNull StringBuilder out);
+
+    void render(@NotNull final StringBuilder out,
+                @NotNull final TextKeywordScanner scanner,
+                @NotNull final SchemeColors colors,
+                @NotNull final String title,
+                @NotNull final CharSequence text) {
+        begin(out, colors, title);
+        final Cursor cursor = new Cursor(out, colors, text);
+        scanner.scan(text, cursor);
+        text(out, text, cursor.position, text.length());
+        end(out);
+    }
+
+    private static void escape(@NotNull final StringBuilder out, @NotNull final CharSequence text, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            final char c = text.charAt(i);
+            switch (c) {
+                case '<':
+                    out.append("&lt;");
+                    break;
+                case '>':
+                    out.append("&gt;");
+                    break;
+                case '&':
+                    out.append("&amp;");
+                    break;
+                default:
+                    out.append(c);
+            }
+        }
+    }
+
+    private final class Cursor implements KeywordSink {
+        private final StringBuilder out;
+        private final SchemeColors colors;
+        private final CharSequence text;
+        int position;
+
+        Cursor(@NotNull final StringBuilder out, @NotNull final SchemeColors colors, @NotNull final CharSequence text) {
+            this.out = out;
+            this.colors = colors;
+            this.text = text;
+        }
+
+        @Override
+        public void accept(final int startOffset, final int endOffset, final int category) {
+            text(out, text, position, startOffset);
+            highlight(out, colors, text, startOffset, endOffset, category);
+            position = endOffset;
+        }
+    }
+}
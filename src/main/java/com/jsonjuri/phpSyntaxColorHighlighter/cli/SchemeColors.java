@@ -0,0 +1,159 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter.cli;
+
+import com.jsonjuri.phpSyntaxColorHighlighter.KeywordCategory;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.InputStream;
+
+/**
+ * Colors of the bundled {@code colorSchemes/*.xml} files, read without the IDE color scheme machinery.
+ * <p>
+ * Categories the scheme does not mention inherit {@code PHP_KEYWORD}, as their text attributes keys do.
+ */
+@SuppressWarnings("HardCodedStringLiteral")
+final class SchemeColors {
+    static final int NO_COLOR = -1;
+
+    private static final String FALLBACK = "PHP_KEYWORD";
+    private static final String KEY_PREFIX = "PHP.";
+
+    private final int[] foregrounds;
+    private final int[] fontTypes;
+    private final boolean dark;
+
+    private SchemeColors(@NotNull final int[] foregrounds, @NotNull final int[] fontTypes, final boolean dark) {
+        this.foregrounds = foregrounds;
+        this.fontTypes = fontTypes;
+        this.dark = dark;
+    }
+
+    /**
+     * @return the RGB foreground of the category, or {@link #NO_COLOR}
+     */
+    int getForeground(final int category) {
+        return foregrounds[category];
+    }
+
+    boolean isBold(final int category) {
+        return (fontTypes[category] & 1) != 0;
+    }
+
+    boolean isItalic(final int category) {
+        return (fontTypes[category] & 2) != 0;
+    }
+
+    boolean isDark() {
+        return dark;
+    }
+
+    @NotNull
+    static SchemeColors load(@NotNull final String scheme) throws Exception {
+        final boolean dark = "darcula".equalsIgnoreCase(scheme);
+        final String resource = "/colorSchemes/" + (dark ? "phpAddonsDarcula.xml" : "phpAddonsDefault.xml");
+
+        final NodeList options;
+        try (final InputStream in = SchemeColors.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing color scheme " + resource);
+            }
+            options = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(in).getDocumentElement().getChildNodes();
+        }
+
+        final KeywordCategory[] categories = KeywordCategory.values();
+        final int[] foregrounds = new int[categories.length];
+        final int[] fontTypes = new int[categories.length];
+        final Element fallback = find(options, FALLBACK);
+        for (final KeywordCategory category : categories) {
+            Element option = find(options, category.name());
+            if (option == null) {
+                option = fallback;
+            }
+            foregrounds[category.ordinal()] = parseColor(value(option, "FOREGROUND"));
+            fontTypes[category.ordinal()] = parseInt(value(option, "FONT_TYPE"));
+        }
+        return new SchemeColors(foregrounds, fontTypes, dark);
+    }
+
+    // Options are stored under the category name, while the attributes keys may carry a "PHP." prefix
+    @Nullable
+    private static Element find(@NotNull final NodeList options, @NotNull final String name) {
+        final String bare = name.startsWith(KEY_PREFIX) ? name.substring(KEY_PREFIX.length()) : name;
+        for (int i = 0; i < options.getLength(); i++) {
+            if (options.item(i) instanceof Element) {
+                final Element option = (Element) options.item(i);
+                final String optionName = option.getAttribute("name");
+                if (optionName.equals(bare) || optionName.equals(KEY_PREFIX + bare)) {
+                    return option;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private static String value(@Nullable final Element option, @NotNull final String name) {
+        if (option == null) {
+            return null;
+        }
+        final NodeList values = option.getElementsByTagName("option");
+        for (int i = 0; i < values.getLength(); i++) {
+            final Element value = (Element) values.item(i);
+            if (name.equals(value.getAttribute("name"))) {
+                return value.getAttribute("value");
+            }
+        }
+        return null;
+    }
+
+    private static int parseColor(@Nullable final String value) {
+        if (value == null || value.isEmpty()) {
+            return NO_COLOR;
+        }
+        try {
+            return Integer.parseInt(value, 16) & 0xFFFFFF;
+        } catch (final NumberFormatException e) {
+            return NO_COLOR;
+        }
+    }
+
+    private static int parseInt(@Nullable final String value) {
+        if (value == null || value.isEmpty()) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (final NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter.settings;
+
+import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.editor.EditorFactory;
+import com.intellij.openapi.editor.ex.EditorEx;
+import com.intellij.openapi.editor.highlighter.EditorHighlighterFactory;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.fileTypes.FileType;
+import com.intellij.openapi.fileTypes.LanguageFileType;
+import com.intellij.openapi.options.Configurable;
+import com.intellij.openapi.options.ConfigurationException;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.project.ProjectManager;
+import com.intellij.openapi.ui.ComboBox;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.ui.EditorNotifications;
+import com.intellij.ui.JBIntSpinner;
+import com.intellij.ui.components.JBCheckBox;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.components.JBTextArea;
+import com.intellij.util.ui.FormBuilder;
+import com.jsonjuri.phpSyntaxColorHighlighter.CustomKeywords;
+import com.jsonjuri.phpSyntaxColorHighlighter.DocTags;
+import com.jsonjuri.phpSyntaxColorHighlighter.HighlightingLevel;
+import com.jsonjuri.phpSyntaxColorHighlighter.HighlightingStats;
+import com.jsonjuri.phpSyntaxColorHighlighter.KeywordCategory;
+import org.jetbrains.annotations.Nls;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.Arrays;
+import java.util.List;
+import java.util.StringJoiner;
+
+@SuppressWarnings("HardCodedStringLiteral")
+public final class CodeColorConfigurable implements Configurable {
+    private JBCheckBox singlePassHighlighting;
+    private JBCheckBox lexerHighlighting;
+    private JBCheckBox resolveBuiltIns;
+    private JBTextArea customKeywords;
+    private JBTextArea phpDocTags;
+    private JBCheckBox[] categories;
+    private JBCheckBox collectStatistics;
+    private JBCheckBox logSlowFiles;
+    private JBIntSpinner slowFileThresholdMs;
+    private JBIntSpinner highlightBytesPerTokenBudget;
+    private JBCheckBox adaptiveLargeFiles;
+    private JBIntSpinner largeFileLength;
+    private JBIntSpinner largeFileTokens;
+    private ComboBox<HighlightingLevel> largeFileLevel;
+    private JBCheckBox prewarmOpenFiles;
+
+    @Nls(capitalization = Nls.Capitalization.Title)
+    @Override
+    public String getDisplayName() {
+        return "PHP Syntax Color Highlighter";
+    }
+
+    @Override
+    public @Nullable JComponent createComponent() {
+        singlePassHighlighting = new JBCheckBox("Highlight the whole file in a single pass (uncheck to use the per-element annotator)");
+        lexerHighlighting = new JBCheckBox("Color keywords while lexing, before the file is parsed");
+        resolveBuiltIns = new JBCheckBox("Color function calls and class references only if they resolve to PHP built-ins (slower)");
+        customKeywords = new JBTextArea(8, 40);
+        customKeywords.getEmptyText().setText("dd = PHP_DEBUG");
+        phpDocTags = new JBTextArea(4, 40);
+        phpDocTags.getEmptyText().setText("@api = PHPDOC_INTERNAL");
+        final JPanel categoryPanel = new JPanel(new GridLayout(0, 3));
+        categories = new JBCheckBox[KeywordCategory.values().length];
+        for (final KeywordCategory category : KeywordCategory.values()) {
+            categories[category.ordinal()] = new JBCheckBox(category.name());
+            categoryPanel.add(categories[category.ordinal()]);
+        }
+        collectStatistics = new JBCheckBox("Collect highlighting statistics (Tools | Show PHP Color Highlighting Statistics)");
+        logSlowFiles = new JBCheckBox("Log files whose highlighting takes longer than (ms):");
+        slowFileThresholdMs = new JBIntSpinner(200, 1, 60_000, 50);
+        final JPanel slowFiles = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+        slowFiles.add(logSlowFiles);
+        slowFiles.add(slowFileThresholdMs);
+        highlightBytesPerTokenBudget = new JBIntSpinner(0, 0, 10_000, 8);
+        adaptiveLargeFiles = new JBCheckBox("Reduce highlighting of large files and in Power Save Mode");
+        largeFileLength = new JBIntSpinner(500_000, 10_000, Integer.MAX_VALUE, 10_000);
+        largeFileTokens = new JBIntSpinner(150_000, 1_000, Integer.MAX_VALUE, 10_000);
+        largeFileLevel = new ComboBox<>(new HighlightingLevel[]{HighlightingLevel.KEYWORDS_ONLY, HighlightingLevel.OFF});
+        prewarmOpenFiles = new JBCheckBox("Classify the PHP files of restored editor tabs in the background when a project opens");
+
+        return FormBuilder.createFormBuilder()
+                .addComponent(singlePassHighlighting)
+                .addComponent(lexerHighlighting)
+                .addComponent(resolveBuiltIns)
+                .addLabeledComponent("Categories to color (unchecked ones are left to the PHP highlighter):", categoryPanel, true)
+                .addLabeledComponent("Custom keywords, one 'name = CATEGORY' per line:", new JBScrollPane(customKeywords), true)
+                .addLabeledComponent("PHPDoc tags, one 'tag = CATEGORY' per line:", new JBScrollPane(phpDocTags), true)
+                .addComponent(collectStatistics)
+                .addComponent(slowFiles)
+                .addLabeledComponent("Log files whose highlights exceed bytes per token (0 = off):", highlightBytesPerTokenBudget)
+                .addComponent(adaptiveLargeFiles)
+                .addLabeledComponent("Large file length (chars):", largeFileLength)
+                .addLabeledComponent("Large file tokens:", largeFileTokens)
+                .addLabeledComponent("Large files:", largeFileLevel)
+                .addComponent(prewarmOpenFiles)
+                .addComponentFillVertically(new JPanel(), 0)
+                .getPanel();
+    }
+
+    @Override
+    public boolean isModified() {
+        final CodeColorOptions options = CodeColorOptions.getInstance();
+        return singlePassHighlighting.isSelected() != options.singlePassHighlighting
+                || lexerHighlighting.isSelected() != options.lexerHighlighting
+                || resolveBuiltIns.isSelected() != options.resolveBuiltIns
+                || !customKeywords.getText().equals(options.customKeywords)
+                || !phpDocTags.getText().equals(options.phpDocTags)
+                || !getDisabledCategories().equals(options.disabledCategories)
+                || collectStatistics.isSelected() != options.collectStatistics
+                || logSlowFiles.isSelected() != options.logSlowFiles
+                || slowFileThresholdMs.getNumber() != options.slowFileThresholdMs
+                || highlightBytesPerTokenBudget.getNumber() != options.highlightBytesPerTokenBudget
+                || prewarmOpenFiles.isSelected() != options.prewarmOpenFiles
+                || isLargeFileModified(options);
+    }
+
+    @Override
+    public void apply() throws ConfigurationException {
+        final String keywords = customKeywords.getText();
+        final String tags = phpDocTags.getText();
+        final String error = CustomKeywords.findError(keywords);
+        final String tagError = DocTags.findError(tags);
+        if (error != null || tagError != null) {
+            throw new ConfigurationException(error != null ? error : tagError);
+        }
+
+        final CodeColorOptions options = CodeColorOptions.getInstance();
+        options.singlePassHighlighting = singlePassHighlighting.isSelected();
+        options.resolveBuiltIns = resolveBuiltIns.isSelected();
+        options.collectStatistics = collectStatistics.isSelected();
+        options.logSlowFiles = logSlowFiles.isSelected();
+        options.slowFileThresholdMs = slowFileThresholdMs.getNumber();
+        options.highlightBytesPerTokenBudget = highlightBytesPerTokenBudget.getNumber();
+        options.prewarmOpenFiles = prewarmOpenFiles.isSelected();
+        HighlightingStats.setEnabled(options.collectStatistics);
+        if (isLargeFileModified(options)) {
+            options.adaptiveLargeFiles = adaptiveLargeFiles.isSelected();
+            options.largeFileLength = largeFileLength.getNumber();
+            options.largeFileTokens = largeFileTokens.getNumber();
+            options.largeFileLevel = (HighlightingLevel) largeFileLevel.getSelectedItem();
+            EditorNotifications.updateAll();
+        }
+        final String disabledCategories = getDisabledCategories();
+        final boolean keywordsChanged = !keywords.equals(options.customKeywords) || !tags.equals(options.phpDocTags)
+                || !disabledCategories.equals(options.disabledCategories);
+        if (keywordsChanged) {
+            options.customKeywords = keywords;
+            options.phpDocTags = tags;
+            options.disabledCategories = disabledCategories;
+            options.updateKeywordTable();
+        }
+        if (options.lexerHighlighting != lexerHighlighting.isSelected() || (keywordsChanged && options.lexerHighlighting)) {
+            options.lexerHighlighting = lexerHighlighting.isSelected();
+            recreateEditorHighlighters();
+        }
+
+        restartHighlighting();
+    }
+
+    @Override
+    public void reset() {
+        final CodeColorOptions options = CodeColorOptions.getInstance();
+        singlePassHighlighting.setSelected(options.singlePassHighlighting);
+        lexerHighlighting.setSelected(options.lexerHighlighting);
+        resolveBuiltIns.setSelected(options.resolveBuiltIns);
+        customKeywords.setText(options.customKeywords);
+        phpDocTags.setText(options.phpDocTags);
+        final List<String> disabled = Arrays.asList(options.disabledCategories.split(","));
+        for (final KeywordCategory category : KeywordCategory.values()) {
+            categories[category.ordinal()].setSelected(!disabled.contains(category.name()));
+        }
+        collectStatistics.setSelected(options.collectStatistics);
+        logSlowFiles.setSelected(options.logSlowFiles);
+        slowFileThresholdMs.setNumber(options.slowFileThresholdMs);
+        highlightBytesPerTokenBudget.setNumber(options.highlightBytesPerTokenBudget);
+        adaptiveLargeFiles.setSelected(options.adaptiveLargeFiles);
+        largeFileLength.setNumber(options.largeFileLength);
+        largeFileTokens.setNumber(options.largeFileTokens);
+        largeFileLevel.setSelectedItem(options.largeFileLevel);
+        prewarmOpenFiles.setSelected(options.prewarmOpenFiles);
+    }
+
+    @Override
+    public void disposeUIResources() {
+        singlePassHighlighting = null;
+        lexerHighlighting = null;
+        resolveBuiltIns = null;
+        customKeywords = null;
+        phpDocTags = null;
+        categories = null;
+        collectStatistics = null;
+        logSlowFiles = null;
+        slowFileThresholdMs = null;
+        highlightBytesPerTokenBudget = null;
+        adaptiveLargeFiles = null;
+        largeFileLength = null;
+        largeFileTokens = null;
+        largeFileLevel = null;
+        prewarmOpenFiles = null;
+    }
+
+    @NotNull
+    private String getDisabledCategories() {
+        final StringJoiner disabled = new StringJoiner(",");
+        for (final KeywordCategory category : KeywordCategory.values()) {
+            if (!categories[category.ordinal()].isSelected()) {
+                disabled.add(category.name());
+            }
+        }
+        return disabled.toString();
+    }
+
+    private boolean isLargeFileModified(@NotNull final CodeColorOptions options) {
+        return adaptiveLargeFiles.isSelected() != options.adaptiveLargeFiles
+                || largeFileLength.getNumber() != options.largeFileLength
+                || largeFileTokens.getNumber() != options.largeFileTokens
+                || largeFileLevel.getSelectedItem() != options.largeFileLevel;
+    }
+
+    static void restartHighlighting() {
+        for (final Project project : ProjectManager.getInstance().getOpenProjects()) {
+            DaemonCodeAnalyzer.getInstance(project).restart();
+        }
+    }
+
+    // Editors keep the highlighter (and lexer keyword table) they were opened with, so PHP editors need a new one
+    private static void recreateEditorHighlighters() {
+        for (final Editor editor : EditorFactory.getInstance().getAllEditors()) {
+            final VirtualFile file = FileDocumentManager.getInstance().getFile(editor.getDocument());
+            final Project project = editor.getProject();
+            if (!(editor instanceof EditorEx) || file == null || project == null || !isPhp(file)) {
+                continue;
+            }
+            ((EditorEx) editor).setHighlighter(EditorHighlighterFactory.getInstance().createEditorHighlighter(project, file));
+        }
+    }
+
+    private static boolean isPhp(@NotNull final VirtualFile file) {
+        final FileType fileType = file.getFileType();
+        return fileType instanceof LanguageFileType && ((LanguageFileType) fileType).getLanguage().isKindOf("PHP");
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter.settings;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.PersistentStateComponent;
+import com.intellij.openapi.components.State;
+import com.intellij.openapi.components.Storage;
+import com.intellij.util.xmlb.XmlSerializerUtil;
+import com.jsonjuri.phpSyntaxColorHighlighter.CustomKeywords;
+import com.jsonjuri.phpSyntaxColorHighlighter.DocTags;
+import com.jsonjuri.phpSyntaxColorHighlighter.HighlightingLevel;
+import com.jsonjuri.phpSyntaxColorHighlighter.HighlightingStats;
+import com.jsonjuri.phpSyntaxColorHighlighter.KeywordCategory;
+import com.jsonjuri.phpSyntaxColorHighlighter.KeywordTable;
+import org.jetbrains.annotations.NotNull;
+
+@State(name = "PhpSyntaxColorHighlighter", storages = @Storage("phpSyntaxColorHighlighter.xml"))
+public final class CodeColorOptions implements PersistentStateComponent<CodeColorOptions> {
+    private static final long ALL_CATEGORIES = (1L << KeywordCategory.values().length) - 1;
+
+    /**
+     * Highlight a whole file in one pass instead of annotating element by element.
+     */
+    public boolean singlePassHighlighting = true;
+
+    /**
+     * Apply the keyword categories in the editor's lexer layer, before the file is parsed. Type declarations still
+     * come from the highlighting pass, since they depend on the surrounding tokens.
+     */
+    public boolean lexerHighlighting = false;
+
+    /**
+     * Color a function call or class reference matched by name only if it resolves to a PHP built-in. Does not apply
+     * to {@link #lexerHighlighting}, where there is no PSI to resolve.
+     */
+    public boolean resolveBuiltIns = false;
+
+    /**
+     * User-defined identifiers, one {@code name = CATEGORY} per line (see {@link CustomKeywords}).
+     */
+    public String customKeywords = "";
+
+    /**
+     * User-defined doc comment tags, one {@code tag = CATEGORY} per line (see {@link DocTags}).
+     */
+    public String phpDocTags = "";
+
+    /**
+     * Names of the {@link KeywordCategory} values left to the base PHP highlighter, comma-separated.
+     */
+    public String disabledCategories = "";
+
+    /**
+     * Record highlighting counters for the statistics action.
+     */
+    public boolean collectStatistics = false;
+
+    /**
+     * Log files whose highlighting pass takes at least {@link #slowFileThresholdMs}.
+     */
+    public boolean logSlowFiles = false;
+
+    public int slowFileThresholdMs = 200;
+
+    /**
+     * Log files whose keyword highlights are estimated to hold more bytes per token than this; 0 turns the check off.
+     */
+    public int highlightBytesPerTokenBudget = 0;
+
+    /**
+     * Highlight files over {@link #largeFileLength} chars or {@link #largeFileTokens} tokens at {@link #largeFileLevel}.
+     */
+    public boolean adaptiveLargeFiles = true;
+
+    public int largeFileLength = 500_000;
+
+    public int largeFileTokens = 150_000;
+
+    public HighlightingLevel largeFileLevel = HighlightingLevel.KEYWORDS_ONLY;
+
+    /**
+     * Classify the PHP files restored in editor tabs in the background when a project opens.
+     */
+    public boolean prewarmOpenFiles = true;
+
+    // Rebuilt on every change and swapped in whole, so highlighting threads never see the tables of two settings
+    private volatile Tables tables;
+
+    @NotNull
+    public static CodeColorOptions getInstance() {
+        return ApplicationManager.getApplication().getService(CodeColorOptions.class);
+    }
+
+    /**
+     * @return the table of the built-in and the user-defined identifiers
+     */
+    @NotNull
+    public KeywordTable getKeywordTable() {
+        return getTables().keywordTable;
+    }
+
+    /**
+     * @return the part of {@link #getKeywordTable()} that holds language keywords and literals, and type declarations
+     */
+    @NotNull
+    public KeywordTable getLanguageKeywordTable() {
+        return getTables().languageKeywordTable;
+    }
+
+    /**
+     * @return whether no category is enabled, so that there is nothing to classify
+     */
+    public boolean isEveryCategoryDisabled() {
+        return getTables().categoryMask == 0;
+    }
+
+    @NotNull
+    private Tables getTables() {
+        final Tables current = tables;
+        return current != null ? current : BuiltInTables.TABLES;
+    }
+
+    /**
+     * Compiles {@link #customKeywords}, {@link #phpDocTags} and {@link #disabledCategories} and publishes the new tables to highlighting
+     * threads. Disabled categories are left out of the tables, so they cost no lookup at all.
+     */
+    public void updateKeywordTable() {
+        final long mask = compileCategoryMask(disabledCategories);
+        KeywordTable table = CustomKeywords.compile(customKeywords).withDocTags(DocTags.compile(phpDocTags));
+        if (mask != ALL_CATEGORIES) {
+            table = table.filter(category -> (mask & 1L << category.ordinal()) != 0);
+        }
+        tables = new Tables(table, mask);
+    }
+
+    /**
+     * @return a bit per enabled category ordinal
+     */
+    private static long compileCategoryMask(@NotNull final String disabled) {
+        long mask = ALL_CATEGORIES;
+        for (final String name : disabled.split(",")) {
+            for (final KeywordCategory category : KeywordCategory.values()) {
+                if (category.name().equals(name.trim())) {
+                    mask &= ~(1L << category.ordinal());
+                }
+            }
+        }
+        return mask;
+    }
+
+    private static boolean isKeywordOrType(@NotNull final KeywordCategory category) {
+        return category.isLanguageKeyword() || category == KeywordCategory.PHP_RETURN_TYPE;
+    }
+
+    /**
+     * The tables compiled from one version of the settings.
+     */
+    private static final class Tables {
+        final KeywordTable keywordTable;
+        final KeywordTable languageKeywordTable;
+        final long categoryMask;
+
+        Tables(@NotNull final KeywordTable keywordTable, final long categoryMask) {
+            this.keywordTable = keywordTable;
+            this.languageKeywordTable = keywordTable.filter(CodeColorOptions::isKeywordOrType);
+            this.categoryMask = categoryMask;
+        }
+    }
+
+    // Used until the settings are loaded
+    private static final class BuiltInTables {
+        static final Tables TABLES = new Tables(KeywordTable.builtIns(), ALL_CATEGORIES);
+    }
+
+    @Override
+    public @NotNull CodeColorOptions getState() {
+        return this;
+    }
+
+    @Override
+    public void loadState(@NotNull final CodeColorOptions state) {
+        XmlSerializerUtil.copyBean(state, this);
+        updateKeywordTable();
+        HighlightingStats.setEnabled(collectStatistics);
+    }
+}
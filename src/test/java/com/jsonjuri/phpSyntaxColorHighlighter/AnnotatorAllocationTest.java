@@ -0,0 +1,66 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * Fails when {@link CodeColorAnnotator} allocates more per annotated token than {@link #MAX_BYTES_PER_ANNOTATION}.
+ * <p>
+ * The bytes are counted by the JVM for the test thread while the annotator runs over the elements of a fixed
+ * generated file, after warm-up runs have filled the per-file caches.
+ */
+public final class AnnotatorAllocationTest extends PhpHighlightingTestCase {
+    // The annotation, its builder and the leaf's TextRange, with room for the holder's list growing
+    private static final long MAX_BYTES_PER_ANNOTATION = 512;
+    private static final int LINES = 2_000;
+    private static final int WARMUP_RUNS = 5;
+
+    public void testBytesPerAnnotatedToken() {
+        options().singlePassHighlighting = false;
+        final PsiFile file = myFixture.configureByText("allocation.php", new PhpCorpusGenerator(42, 0.1, 0.1).generate(LINES));
+        final List<PsiElement> elements = HighlightingTestUtil.elements(file);
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            HighlightingTestUtil.annotate(file, elements);
+        }
+
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long thread = Thread.currentThread().getId();
+        final long before = threads.getThreadAllocatedBytes(thread);
+        final int annotations = HighlightingTestUtil.annotate(file, elements).size();
+        final long bytes = threads.getThreadAllocatedBytes(thread) - before;
+
+        assertTrue("Nothing was annotated", annotations > 0);
+        final long perAnnotation = bytes / annotations;
+        assertTrue(perAnnotation + " bytes allocated per annotated token, more than " + MAX_BYTES_PER_ANNOTATION,
+                perAnnotation <= MAX_BYTES_PER_ANNOTATION);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.tree.IElementType;
+import org.jetbrains.annotations.NotNull;
+
+public final class CandidateTokenTypesTest extends PhpHighlightingTestCase {
+    private static final String TEXT = "<?php\n"
+            + "$count = count($items) + 42; // count\n"
+            + "echo \"count {$count}\";\n"
+            + "return true;\n";
+
+    public void testIdentifiersAndKeywordsAreCandidates() {
+        final PsiFile file = myFixture.configureByText("tokens.php", TEXT);
+        assertTrue(CandidateTokenTypes.isCandidate(typeAt(file, "count(")));
+        assertTrue(CandidateTokenTypes.isCandidate(typeAt(file, "true")));
+        assertTrue(CandidateTokenTypes.isCandidate(typeAt(file, "return")));
+        assertTrue(CandidateTokenTypes.isIdentifier(typeAt(file, "count(")));
+        assertFalse(CandidateTokenTypes.isIdentifier(typeAt(file, "return")));
+    }
+
+    public void testOtherTokensAreRejected() {
+        final PsiFile file = myFixture.configureByText("tokens.php", TEXT);
+        assertFalse(CandidateTokenTypes.isCandidate(typeAt(file, "$count =")));
+        assertFalse(CandidateTokenTypes.isCandidate(typeAt(file, "42")));
+        assertFalse(CandidateTokenTypes.isCandidate(typeAt(file, "+ 42")));
+        assertFalse(CandidateTokenTypes.isCandidate(typeAt(file, "count {")));
+        assertFalse(CandidateTokenTypes.isCandidate(typeAt(file, "// count")));
+        assertTrue(CandidateTokenTypes.isTrivia(typeAt(file, "// count")));
+        assertTrue(CandidateTokenTypes.isTrivia(typeAt(file, " = count")));
+    }
+
+    @NotNull
+    private static IElementType typeAt(@NotNull final PsiFile file, @NotNull final String prefix) {
+        final int offset = file.getText().indexOf(prefix);
+        assertTrue(prefix, offset >= 0);
+        final PsiElement leaf = file.findElementAt(offset);
+        assertNotNull(prefix, leaf);
+        return leaf.getNode().getElementType();
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+/**
+ * Checks the highlights of the fixtures in {@code src/test/testData/highlighting} against their {@code .php.txt}
+ * golden files, with the per-element annotator and with the single-pass highlighting.
+ */
+public final class CodeColorHighlightingTest extends PhpHighlightingTestCase {
+    @Override
+    protected String getTestDataPath() {
+        return "src/test/testData/highlighting";
+    }
+
+    public void testFunctions() {
+        doTest();
+    }
+
+    public void testCategories() {
+        doTest();
+    }
+
+    public void testInlineHtml() {
+        doTest();
+    }
+
+    public void testKeywords() {
+        doTest();
+    }
+
+    public void testPhpdoc() {
+        doTest();
+    }
+
+    public void testCustom() {
+        options().customKeywords = "abort_if = PHP_ERROR\nAudit = PHP_DEBUG";
+        options().updateKeywordTable();
+        doTest();
+    }
+
+    // The annotator runs first: highlighters of the pass would outlive a run in which no pass is created
+    private void doTest() {
+        final String name = getTestName(true) + ".php";
+        final String golden = getTestDataPath() + "/" + name + ".txt";
+        myFixture.configureByFile(name);
+
+        options().singlePassHighlighting = false;
+        assertSameLinesWithFile(golden, HighlightingTestUtil.describe(myFixture.getEditor().getDocument(), myFixture.doHighlighting()));
+
+        options().singlePassHighlighting = true;
+        assertSameLinesWithFile(golden, HighlightingTestUtil.describe(myFixture.getEditor().getDocument(), myFixture.doHighlighting()));
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import com.intellij.psi.PsiComment;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.SyntaxTraverser;
+import com.intellij.psi.util.PsiTreeUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Checks {@link CommentRanges} against the parent walk it replaced, in closures and arrays nested {@link #DEPTH} deep,
+ * and that the depth does not show in the time the annotator takes.
+ */
+public final class CommentRangesTest extends PhpHighlightingTestCase {
+    private static final int DEPTH = 200;
+    private static final int SHALLOW_DEPTH = 2;
+    private static final int MAX_DEPTH_RATIO = 3;
+    private static final int WARMUP_RUNS = 5;
+    private static final int TIMED_RUNS = 10;
+
+    public void testSameResultsAsParentWalk() {
+        final PsiFile file = myFixture.configureByText("nested.php", nested(DEPTH, 1));
+        final CommentRanges ranges = CommentRanges.of(file);
+        for (final PsiElement leaf : leaves(file)) {
+            final int offset = leaf.getTextRange().getStartOffset();
+            assertEquals(leaf.getText() + " at " + offset,
+                    PsiTreeUtil.getParentOfType(leaf, PsiComment.class) != null, ranges.contains(offset));
+        }
+    }
+
+    // Comments are looked up by binary search and type declarations from the closest boundary, so annotating the
+    // closures nested DEPTH deep takes about as long as annotating as many closures nested SHALLOW_DEPTH deep
+    public void testAnnotatorIndependentOfDepth() {
+        options().singlePassHighlighting = false;
+        final long shallow = bestAnnotateNanos("shallow.php", nested(SHALLOW_DEPTH, DEPTH / SHALLOW_DEPTH));
+        final long deep = bestAnnotateNanos("deep.php", nested(DEPTH, 1));
+        assertTrue("Annotating " + DEPTH + " deep took " + deep / 1_000 + " us, " + SHALLOW_DEPTH + " deep "
+                + shallow / 1_000 + " us", deep <= shallow * MAX_DEPTH_RATIO);
+    }
+
+    private long bestAnnotateNanos(@NotNull final String name, @NotNull final String text) {
+        final PsiFile file = myFixture.configureByText(name, text);
+        final List<PsiElement> elements = HighlightingTestUtil.elements(file);
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            assertFalse(HighlightingTestUtil.annotate(file, elements).isEmpty());
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < TIMED_RUNS; i++) {
+            final long start = System.nanoTime();
+            HighlightingTestUtil.annotate(file, elements);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    @NotNull
+    private static List<PsiElement> leaves(@NotNull final PsiFile file) {
+        return SyntaxTraverser.psiTraverser(file).filter(element -> element.getFirstChild() == null).toList();
+    }
+
+    // Closures returning arrays that hold the next closure, each with a doc comment mentioning a built-in
+    @NotNull
+    private static String nested(final int depth, final int copies) {
+        final StringBuilder out = new StringBuilder("<?php\n");
+        for (int copy = 0; copy < copies; copy++) {
+            out.append("\n$handler = ");
+            for (int level = 0; level < depth; level++) {
+                out.append("function ($value) {\n    /** Level ").append(level).append(", see strlen(). */\n")
+                        .append("    return [strlen($value), 'level' => ").append(level).append(", ");
+            }
+            out.append("null");
+            for (int level = 0; level < depth; level++) {
+                out.append("];\n}");
+            }
+            out.append(";\n");
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import com.intellij.openapi.util.Segment;
+import com.intellij.usages.Usage;
+import com.intellij.usages.UsageInfo2UsageAdapter;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class FindByCategoryActionTest extends PhpHighlightingTestCase {
+    public void testKeepsOnlyHitsTheHighlighterColors() {
+        options().resolveBuiltIns = false;
+        myFixture.configureByText("find.php", "<?php\n"
+                + "$length = strlen($text);\n"
+                + "$size = Formatter::strlen;\n"
+                + "$items->strlen();\n"
+                + "function strlen() {}\n"
+                + "$other = STRLEN($text);\n");
+
+        assertEquals(List.of("strlen", "STRLEN"), texts(FindByCategoryAction.collect(getProject(), KeywordCategory.PHP_STRING_FUNCTION)));
+    }
+
+    public void testSkipsMethodsAndDeclarations() {
+        options().resolveBuiltIns = false;
+        myFixture.configureByText("find.php", "<?php\n"
+                + "$logger->debug('x');\n"
+                + "$collection->count();\n"
+                + "function date() {}\n"
+                + "$today = date('Y');\n");
+
+        assertEquals(List.of(), texts(FindByCategoryAction.collect(getProject(), KeywordCategory.PHP_DEBUG)));
+        assertEquals(List.of(), texts(FindByCategoryAction.collect(getProject(), KeywordCategory.PHP_ARRAY_FUNCTION)));
+        assertEquals(List.of("date"), texts(FindByCategoryAction.collect(getProject(), KeywordCategory.PHP_DATE)));
+    }
+
+    @NotNull
+    private List<String> texts(@NotNull final List<Usage> usages) {
+        final String text = myFixture.getFile().getText();
+        final List<String> result = new ArrayList<>();
+        for (final Usage usage : usages) {
+            final Segment segment = ((UsageInfo2UsageAdapter) usage).getUsageInfo().getSegment();
+            assertNotNull(segment);
+            result.add(text.substring(segment.getStartOffset(), segment.getEndOffset()));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.editor.impl.DocumentMarkupModel;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Locale;
+
+/**
+ * Retained heap of the keyword highlights of generated PHP files from 1k to 100k lines.
+ * <p>
+ * Each file is highlighted once to build its tree and PSI, cleared, and highlighted again between two heap readings
+ * taken after garbage collection. The difference is what the highlights retain: the {@code HighlightInfo}s, their
+ * range highlighters in the markup model and the file's {@link KeywordHighlightCache}. The test fails when that
+ * exceeds the bytes-per-token budget ({@code -PhighlightBytesPerTokenBudget=n}), or when the size of one highlight
+ * drifts too far from the estimate of {@link HighlightMemory}.
+ * <p>
+ * Only the total is measured; the per-category figures of the report are estimates, the highlights of each category
+ * times the average size of a highlight.
+ */
+@SuppressWarnings("HardCodedStringLiteral")
+public final class HighlightMemoryTest extends PhpHighlightingTestCase {
+    private static final Logger LOG = Logger.getInstance(HighlightMemoryTest.class);
+    private static final int[] LINES = {1_000, 10_000, 100_000};
+    private static final int DEFAULT_BYTES_PER_TOKEN_BUDGET = 100;
+    // Below this many highlights, the heap readings are too noisy to size a single highlight
+    private static final int MIN_HIGHLIGHTS_TO_CALIBRATE = 10_000;
+    private static final int GC_RUNS = 3;
+
+    public void testRetainedHeapWithinBudget() {
+        final int budget = Integer.getInteger("highlightBytesPerTokenBudget", DEFAULT_BYTES_PER_TOKEN_BUDGET);
+        final StringBuilder report = new StringBuilder("Retained heap of keyword highlights (budget ")
+                .append(budget).append(" bytes per token)\n");
+        for (final int lines : LINES) {
+            measure(lines, budget, report);
+        }
+        LOG.info(report.toString());
+    }
+
+    private void measure(final int lines, final int budget, @NotNull final StringBuilder report) {
+        final PsiFile file = myFixture.configureByText("memory" + lines + ".php", new PhpCorpusGenerator(42, 0.1, 0.1).generate(lines));
+        final Document document = myFixture.getEditor().getDocument();
+        HighlightingTestUtil.runPass(file, myFixture.getEditor());
+        DocumentMarkupModel.forDocument(document, getProject(), true).removeAllHighlighters();
+        KeywordHighlightCache.drop(file);
+
+        final long before = usedHeap();
+        HighlightingTestUtil.runPass(file, myFixture.getEditor());
+        final long retained = usedHeap() - before;
+
+        final KeywordHighlightCache cache = KeywordHighlightCache.peek(file);
+        assertNotNull(cache);
+        final int[] counts = new int[KeywordCategory.values().length];
+        cache.countCategories(counts);
+        int highlights = 0;
+        for (final int count : counts) {
+            highlights += count;
+        }
+        final int tokens = cache.getTokenCount();
+        assertTrue(lines + " lines: nothing was highlighted", highlights > 0 && tokens > 0);
+
+        final double perToken = (double) retained / tokens;
+        final double perHighlight = (double) (retained - cache.getRetainedBytes()) / highlights;
+        report.append(String.format(Locale.ROOT, "  %d lines: %d tokens, %d highlights, %d KB, %.1f bytes/token, %.0f bytes/highlight%n",
+                lines, tokens, highlights, retained / 1024, perToken, perHighlight));
+        report.append("    per category, estimated as highlights times bytes/highlight:\n");
+        for (final KeywordCategory category : KeywordCategory.values()) {
+            if (counts[category.ordinal()] > 0) {
+                report.append(String.format(Locale.ROOT, "    %s: %d highlights, ~%.0f KB%n",
+                        category.name(), counts[category.ordinal()], counts[category.ordinal()] * perHighlight / 1024));
+            }
+        }
+
+        assertTrue(String.format(Locale.ROOT, "%d lines: %.1f bytes per token, over the budget of %d", lines, perToken, budget),
+                perToken <= budget);
+        if (highlights >= MIN_HIGHLIGHTS_TO_CALIBRATE) {
+            assertTrue(String.format(Locale.ROOT, "%d lines: a highlight retains %.0f bytes, update HighlightMemory.BYTES_PER_HIGHLIGHT (%d)",
+                    lines, perHighlight, HighlightMemory.BYTES_PER_HIGHLIGHT),
+                    perHighlight >= HighlightMemory.BYTES_PER_HIGHLIGHT / 2.0 && perHighlight <= HighlightMemory.BYTES_PER_HIGHLIGHT * 2.0);
+        }
+    }
+
+    private static long usedHeap() {
+        final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < GC_RUNS; i++) {
+            memory.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
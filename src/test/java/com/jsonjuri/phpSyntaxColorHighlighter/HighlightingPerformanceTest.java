@@ -0,0 +1,60 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import com.intellij.psi.PsiFile;
+import com.intellij.testFramework.PlatformTestUtil;
+
+/**
+ * Timing limits for highlighting a generated 10k-line file, scaled by the platform to the speed of the machine.
+ */
+public final class HighlightingPerformanceTest extends PhpHighlightingTestCase {
+    private static final int LINES = 10_000;
+    private static final int PASS_LIMIT_MS = 1_000;
+    private static final int ANNOTATOR_LIMIT_MS = 2_000;
+
+    public void testPass() {
+        final PsiFile file = myFixture.configureByText("performance.php", generate());
+        PlatformTestUtil.startPerformanceTest("Keyword pass over " + LINES + " lines", PASS_LIMIT_MS,
+                () -> HighlightingTestUtil.runPass(file, myFixture.getEditor()))
+                .setup(() -> KeywordHighlightCache.drop(file))
+                .assertTiming();
+    }
+
+    public void testAnnotator() {
+        options().singlePassHighlighting = false;
+        final PsiFile file = myFixture.configureByText("performance.php", generate());
+        PlatformTestUtil.startPerformanceTest("annotate() over " + LINES + " lines", ANNOTATOR_LIMIT_MS,
+                () -> HighlightingTestUtil.annotate(file))
+                .setup(() -> KeywordHighlightCache.drop(file))
+                .assertTiming();
+    }
+
+    private static String generate() {
+        return new PhpCorpusGenerator(42, 0.1, 0.1).generate(LINES);
+    }
+}
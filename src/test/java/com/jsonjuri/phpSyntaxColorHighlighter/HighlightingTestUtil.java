@@ -0,0 +1,136 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import com.intellij.codeInsight.daemon.impl.AnnotationHolderImpl;
+import com.intellij.codeInsight.daemon.impl.HighlightInfo;
+import com.intellij.lang.annotation.Annotation;
+import com.intellij.lang.annotation.AnnotationSession;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.editor.colors.TextAttributesKey;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.SyntaxTraverser;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the annotator and the highlighting pass outside the daemon, and renders their highlights in the
+ * {@code line:column word CATEGORY} format of the golden files.
+ */
+@SuppressWarnings("HardCodedStringLiteral")
+final class HighlightingTestUtil {
+    private static final Map<TextAttributesKey, KeywordCategory> CATEGORIES = createCategories();
+
+    private HighlightingTestUtil() {
+    }
+
+    /**
+     * Annotates every element of {@code file} the way the general highlighting pass does.
+     */
+    @NotNull
+    static List<Annotation> annotate(@NotNull final PsiFile file) {
+        return annotate(file, elements(file));
+    }
+
+    /**
+     * Annotates {@code elements} of {@code file}, e.g. the {@link #elements} collected beforehand, so that only the
+     * annotator itself is measured.
+     */
+    @NotNull
+    static List<Annotation> annotate(@NotNull final PsiFile file, @NotNull final List<PsiElement> elements) {
+        final AnnotationHolderImpl holder = new AnnotationHolderImpl(new AnnotationSession(file), false);
+        final CodeColorAnnotator annotator = new CodeColorAnnotator();
+        for (final PsiElement element : elements) {
+            holder.runAnnotatorWithContext(element, annotator);
+        }
+        return holder;
+    }
+
+    /**
+     * @return every element of {@code file}, in the order the general highlighting pass visits them
+     */
+    @NotNull
+    static List<PsiElement> elements(@NotNull final PsiFile file) {
+        return SyntaxTraverser.psiTraverser(file).toList();
+    }
+
+    /**
+     * Runs a {@link CodeColorHighlightingPass} over the whole file and applies its highlights to the editor.
+     */
+    static void runPass(@NotNull final PsiFile file, @NotNull final Editor editor) {
+        final CodeColorHighlightingPass pass = new CodeColorHighlightingPass(file, editor,
+                new TextRange(0, file.getTextLength()), Collections.emptyList());
+        pass.doCollectInformation(new EmptyProgressIndicator());
+        pass.doApplyInformationToEditor();
+    }
+
+    /**
+     * @return the category of a highlight of this plugin, or {@code null} for the highlights of anything else
+     */
+    @Nullable
+    static KeywordCategory categoryOf(@NotNull final HighlightInfo info) {
+        final TextAttributesKey key = info.forcedTextAttributesKey != null ? info.forcedTextAttributesKey : info.type.getAttributesKey();
+        return CATEGORIES.get(key);
+    }
+
+    /**
+     * @return the highlights of this plugin, one {@code line:column word CATEGORY} line each, in document order
+     */
+    @NotNull
+    static String describe(@NotNull final Document document, @NotNull final List<HighlightInfo> infos) {
+        final CharSequence text = document.getImmutableCharSequence();
+        return infos.stream()
+                .filter(info -> categoryOf(info) != null)
+                .sorted(Comparator.comparingInt(HighlightInfo::getStartOffset))
+                .map(info -> {
+                    final int line = document.getLineNumber(info.getStartOffset());
+                    return (line + 1) + ":" + (info.getStartOffset() - document.getLineStartOffset(line) + 1) + ' '
+                            + text.subSequence(info.getStartOffset(), info.getEndOffset()) + ' ' + categoryOf(info).name() + '\n';
+                })
+                .collect(Collectors.joining());
+    }
+
+    @NotNull
+    private static Map<TextAttributesKey, KeywordCategory> createCategories() {
+        final Map<TextAttributesKey, KeywordCategory> categories = new HashMap<>();
+        for (final KeywordCategory category : KeywordCategory.values()) {
+            categories.put(CodeColorKeys.of(category), category);
+        }
+        return categories;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import com.intellij.lang.ASTNode;
+import com.intellij.psi.PsiElement;
+import org.jetbrains.annotations.NotNull;
+
+public final class KeywordContextTest extends PhpHighlightingTestCase {
+    public void testParentKinds() {
+        assertEquals(KeywordContext.FUNCTION_CALL, KeywordContext.parentKind(leafAtCaret("<?php str<caret>len($text);")));
+        assertEquals(KeywordContext.METHOD_CALL, KeywordContext.parentKind(leafAtCaret("<?php $items->cou<caret>nt();")));
+        assertEquals(KeywordContext.CONSTANT, KeywordContext.parentKind(leafAtCaret("<?php $found = tr<caret>ue;")));
+        assertEquals(KeywordContext.CLASS_REFERENCE, KeywordContext.parentKind(leafAtCaret("<?php new Date<caret>Time();")));
+        assertEquals(KeywordContext.OTHER, KeywordContext.parentKind(leafAtCaret("<?php function da<caret>te() {}")));
+    }
+
+    public void testFunctionsMatchOnlyGlobalCalls() {
+        assertAccepted(true, "<?php str<caret>len($text);");
+        assertAccepted(true, "<?php STR<caret>LEN($text);");
+        assertAccepted(false, "<?php $items->cou<caret>nt();");
+        assertAccepted(false, "<?php Formatter::str<caret>len;");
+        assertAccepted(false, "<?php function da<caret>te() {}");
+    }
+
+    public void testClassNamesMatchOnlyClassReferences() {
+        assertAccepted(true, "<?php new Date<caret>Time();");
+        assertAccepted(true, "<?php new date<caret>time();");
+        assertAccepted(false, "<?php date<caret>time();");
+    }
+
+    public void testLiteralsMatchOnlyAsConstants() {
+        assertAccepted(true, "<?php $found = nu<caret>ll;");
+        assertAccepted(false, "<?php $items->nu<caret>ll();");
+    }
+
+    public void testUserMappingsMatchAtReferences() {
+        options().customKeywords = "abort_if = PHP_ERROR";
+        options().updateKeywordTable();
+        assertAccepted(true, "<?php abort<caret>_if($denied);");
+        assertAccepted(true, "<?php $this->abort<caret>_if($denied);");
+        assertAccepted(false, "<?php function abort<caret>_if($condition) {}");
+    }
+
+    public void testBuiltInsResolvePerNamespaceBlock() {
+        options().resolveBuiltIns = true;
+        final String text = "<?php\nnamespace App { function date() {} date(); }\nnamespace Other { date(); }";
+        myFixture.configureByText("namespaces.php", text);
+        final KeywordTable table = options().getKeywordTable();
+        final ASTNode shadowed = leafAt(text.indexOf("date();"));
+        final ASTNode builtIn = leafAt(text.lastIndexOf("date();"));
+        assertFalse(KeywordContext.accepts(shadowed, table, table.entryOf(shadowed.getChars())));
+        assertTrue(KeywordContext.accepts(builtIn, table, table.entryOf(builtIn.getChars())));
+    }
+
+    private void assertAccepted(final boolean expected, @NotNull final String text) {
+        final ASTNode leaf = leafAtCaret(text);
+        final KeywordTable table = options().getKeywordTable();
+        final int entry = table.entryOf(leaf.getChars());
+        assertTrue(leaf.getText() + " is not in the keyword table", entry != KeywordTable.NOT_FOUND);
+        assertEquals(text, expected, KeywordContext.accepts(leaf, table, entry));
+    }
+
+    @NotNull
+    private ASTNode leafAtCaret(@NotNull final String text) {
+        myFixture.configureByText("context.php", text);
+        return leafAt(myFixture.getCaretOffset());
+    }
+
+    @NotNull
+    private ASTNode leafAt(final int offset) {
+        final PsiElement leaf = myFixture.getFile().findElementAt(offset);
+        assertNotNull(leaf);
+        return leaf.getNode();
+    }
+}
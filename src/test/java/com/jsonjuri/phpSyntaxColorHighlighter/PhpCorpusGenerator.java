@@ -0,0 +1,135 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates PHP source that looks like application code: namespaced classes with typed methods, calls,
+ * comments and strings. The share of keywords and built-in functions among the identifiers is configurable,
+ * and the same seed always produces the same text.
+ */
+@SuppressWarnings("HardCodedStringLiteral")
+final class PhpCorpusGenerator {
+    private static final String[] IDENTIFIERS = {
+            "user", "order", "repository", "handler", "payload", "request", "response", "items", "total", "cache",
+            "logger", "config", "options", "result", "entity", "mapper", "builder", "factory", "query", "stream"
+    };
+    private static final String[] TYPES = {"int", "string", "array", "bool", "float", "?User", "Order", "iterable"};
+
+    private final Random random;
+    private final double keywordRatio;
+    private final double builtInRatio;
+    private final String[] keywords;
+    private final String[] builtIns;
+
+    PhpCorpusGenerator(final long seed, final double keywordRatio, final double builtInRatio) {
+        this.random = new Random(seed);
+        this.keywordRatio = keywordRatio;
+        this.builtInRatio = builtInRatio;
+
+        final List<String> keywordWords = new ArrayList<>();
+        final List<String> builtInWords = new ArrayList<>();
+        for (final KeywordCategory category : KeywordCategory.values()) {
+            final boolean function = category.name().endsWith("_FUNCTION") || category == KeywordCategory.PHP_PREG
+                    || category == KeywordCategory.PHP_DATE || category == KeywordCategory.PHP_DEBUG;
+            for (final String word : category.getWords()) {
+                (function ? builtInWords : keywordWords).add(word);
+            }
+        }
+        this.keywords = keywordWords.toArray(new String[0]);
+        this.builtIns = builtInWords.toArray(new String[0]);
+    }
+
+    /**
+     * @return a file of roughly {@code lines} lines
+     */
+    @NotNull
+    String generate(final int lines) {
+        final StringBuilder out = new StringBuilder(lines * 48);
+        out.append("<?php\n\nnamespace App\\Service;\n\nuse App\\Model\\User;\n\n");
+
+        int line = 6;
+        int classIndex = 0;
+        while (line < lines) {
+            out.append("/**\n * Service ").append(classIndex).append(".\n */\n");
+            out.append("final class Service").append(classIndex++).append("\n{\n");
+            out.append("    private array $").append(pick(IDENTIFIERS)).append(" = [];\n\n");
+            line += 7;
+
+            for (int method = 0; method < 8 && line < lines; method++) {
+                out.append("    public function ").append(pick(IDENTIFIERS)).append(method)
+                        .append('(').append(pick(TYPES)).append(" $").append(pick(IDENTIFIERS))
+                        .append(", ").append(pick(TYPES)).append('|').append(pick(TYPES)).append(" $").append(pick(IDENTIFIERS))
+                        .append(" = null): ").append(pick(TYPES)).append("\n    {\n");
+                line += 2;
+                for (int statement = 0; statement < 6; statement++) {
+                    out.append("        ").append(statement(statement)).append('\n');
+                    line++;
+                }
+                out.append("    }\n\n");
+                line += 2;
+            }
+            out.append("}\n\n");
+            line += 2;
+        }
+        return out.toString();
+    }
+
+    @NotNull
+    private String statement(final int index) {
+        switch (index % 3) {
+            case 0:
+                return "// " + word() + ' ' + word() + ' ' + word();
+            case 1:
+                return '$' + pick(IDENTIFIERS) + " = " + word() + "($" + pick(IDENTIFIERS) + ", '" + word() + "');";
+            default:
+                return "$this->" + pick(IDENTIFIERS) + "->" + word() + "(" + word() + ", " + random.nextInt(100) + ");";
+        }
+    }
+
+    @NotNull
+    private String word() {
+        final double roll = random.nextDouble();
+        if (roll < keywordRatio) {
+            return pick(keywords);
+        }
+        if (roll < keywordRatio + builtInRatio) {
+            return pick(builtIns);
+        }
+        return pick(IDENTIFIERS);
+    }
+
+    @NotNull
+    private String pick(@NotNull final String[] words) {
+        return words[random.nextInt(words.length)];
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) Elior "Mallowigi" Boukhobza & jsonjuri
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package com.jsonjuri.phpSyntaxColorHighlighter;
+
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+import com.intellij.util.xmlb.XmlSerializerUtil;
+import com.jsonjuri.phpSyntaxColorHighlighter.settings.CodeColorOptions;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Light PHP fixture whose tests may change {@link CodeColorOptions}; the options are restored after every test.
+ */
+abstract class PhpHighlightingTestCase extends BasePlatformTestCase {
+    private CodeColorOptions savedOptions;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        savedOptions = XmlSerializerUtil.createCopy(CodeColorOptions.getInstance());
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        try {
+            final CodeColorOptions options = CodeColorOptions.getInstance();
+            XmlSerializerUtil.copyBean(savedOptions, options);
+            options.updateKeywordTable();
+        } catch (final Throwable e) {
+            addSuppressedException(e);
+        } finally {
+            super.tearDown();
+        }
+    }
+
+    @NotNull
+    static CodeColorOptions options() {
+        return CodeColorOptions.getInstance();
+    }
+}
@@ -0,0 +1,11 @@
+<?php
+
+// One call of each remaining built-in category, and a success word called on a user object
+$valid = is_array($input);
+$type = get_class($service);
+$id = uniqid();
+$payload = json_encode($input);
+$rounded = round($value, 2);
+$arguments = func_get_args();
+$matched = preg_match('/^\d+$/', $id);
+$promise->onSuccess($handler);
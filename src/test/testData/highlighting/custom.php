@@ -0,0 +1,11 @@
+<?php
+
+// Mapped in the test: abort_if = PHP_ERROR, Audit = PHP_DEBUG
+abort_if($denied, 403);
+$this->abort_if($denied);
+Audit::record('login');
+$audit = new Audit();
+
+function abort_if($condition, $code)
+{
+}
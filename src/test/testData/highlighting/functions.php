@@ -0,0 +1,14 @@
+<?php
+
+// Built-in functions match in any case, but only where they are called as global functions
+$length = strlen($text) + STRLEN($text);
+$mapped = Array_Map('trim', $items);
+Var_Dump($mapped);
+$today = DATE('Y-m-d');
+$stamp = new DateTime();
+$other = new datetime();
+$wrong = datetime();
+$size = $collection->count();
+$limit = Formatter::strlen;
+CONSOLE('not a PHP function');
+Debug($mapped);
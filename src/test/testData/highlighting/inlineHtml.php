@@ -0,0 +1,11 @@
+<html>
+<body>
+<p>array_merge and return in HTML are not classified</p>
+<?php foreach ($items as $item): ?>
+    <li><?= htmlentities($item) ?></li>
+<?php endforeach; ?>
+<?php
+$heredoc = <<<TEXT
+    strlen() in a heredoc is not classified
+    TEXT;
+return count($items);
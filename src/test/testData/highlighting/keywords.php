@@ -0,0 +1,28 @@
+<?php
+
+namespace App\Service;
+
+use App\Model\User;
+
+final class UserService
+{
+    private static $instance = null;
+
+    public function find(int $id): ?User
+    {
+        if ($id === 0) {
+            return null;
+        }
+        return self::$instance ?? false;
+    }
+
+    protected function enabled(): bool
+    {
+        return true;
+    }
+
+    private function visitAll(callable $visit): iterable
+    {
+        return [];
+    }
+}
@@ -0,0 +1,14 @@
+<?php
+
+/**
+ * Loads a user; strlen() in a doc comment is not classified.
+ *
+ * @param int $id
+ * @return array
+ * @throws RuntimeException
+ * @deprecated
+ */
+function load($id)
+{
+    return [];
+}
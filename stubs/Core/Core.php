@@ -0,0 +1,72 @@
+<?php
+
+// Start of Core
+// Trimmed to the function declarations read by the dictionary generator.
+
+function class_alias() {}
+
+function class_exists() {}
+
+function define() {}
+
+function defined() {}
+
+function each() {}
+
+function func_get_arg() {}
+
+function func_get_args() {}
+
+function func_num_args() {}
+
+function function_exists() {}
+
+function get_called_class() {}
+
+function get_class() {}
+
+function get_class_methods() {}
+
+function get_class_vars() {}
+
+function get_declared_classes() {}
+
+function get_declared_interfaces() {}
+
+function get_declared_traits() {}
+
+function get_defined_functions() {}
+
+function get_defined_vars() {}
+
+function get_object_vars() {}
+
+function get_parent_class() {}
+
+function get_resource_id() {}
+
+function get_resource_type() {}
+
+function interface_exists() {}
+
+function is_a() {}
+
+function is_subclass_of() {}
+
+function method_exists() {}
+
+function property_exists() {}
+
+function strcasecmp() {}
+
+function strcmp() {}
+
+function strlen() {}
+
+function strncasecmp() {}
+
+function strncmp() {}
+
+function trait_exists() {}
+
+// End of Core
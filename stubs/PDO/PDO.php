@@ -0,0 +1,8 @@
+<?php
+
+// Start of PDO
+// Trimmed to the function declarations read by the dictionary generator.
+
+function pdo_drivers() {}
+
+// End of PDO
@@ -0,0 +1,36 @@
+<?php
+
+// Start of SPL
+// Trimmed to the function declarations read by the dictionary generator.
+
+function class_implements() {}
+
+function class_parents() {}
+
+function class_uses() {}
+
+function iterator_apply() {}
+
+function iterator_count() {}
+
+function iterator_to_array() {}
+
+function spl_autoload() {}
+
+function spl_autoload_call() {}
+
+function spl_autoload_extensions() {}
+
+function spl_autoload_functions() {}
+
+function spl_autoload_register() {}
+
+function spl_autoload_unregister() {}
+
+function spl_classes() {}
+
+function spl_object_hash() {}
+
+function spl_object_id() {}
+
+// End of SPL
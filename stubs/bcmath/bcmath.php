@@ -0,0 +1,26 @@
+<?php
+
+// Start of bcmath
+// Trimmed to the function declarations read by the dictionary generator.
+
+function bcadd() {}
+
+function bccomp() {}
+
+function bcdiv() {}
+
+function bcmod() {}
+
+function bcmul() {}
+
+function bcpow() {}
+
+function bcpowmod() {}
+
+function bcscale() {}
+
+function bcsqrt() {}
+
+function bcsub() {}
+
+// End of bcmath
@@ -0,0 +1,28 @@
+<?php
+
+// Start of ctype
+// Trimmed to the function declarations read by the dictionary generator.
+
+function ctype_alnum() {}
+
+function ctype_alpha() {}
+
+function ctype_cntrl() {}
+
+function ctype_digit() {}
+
+function ctype_graph() {}
+
+function ctype_lower() {}
+
+function ctype_print() {}
+
+function ctype_punct() {}
+
+function ctype_space() {}
+
+function ctype_upper() {}
+
+function ctype_xdigit() {}
+
+// End of ctype
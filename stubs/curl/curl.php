@@ -0,0 +1,70 @@
+<?php
+
+// Start of curl
+// Trimmed to the function declarations read by the dictionary generator.
+
+function curl_close() {}
+
+function curl_copy_handle() {}
+
+function curl_errno() {}
+
+function curl_error() {}
+
+function curl_escape() {}
+
+function curl_exec() {}
+
+function curl_file_create() {}
+
+function curl_getinfo() {}
+
+function curl_init() {}
+
+function curl_multi_add_handle() {}
+
+function curl_multi_close() {}
+
+function curl_multi_errno() {}
+
+function curl_multi_exec() {}
+
+function curl_multi_getcontent() {}
+
+function curl_multi_info_read() {}
+
+function curl_multi_init() {}
+
+function curl_multi_remove_handle() {}
+
+function curl_multi_select() {}
+
+function curl_multi_setopt() {}
+
+function curl_multi_strerror() {}
+
+function curl_pause() {}
+
+function curl_reset() {}
+
+function curl_setopt() {}
+
+function curl_setopt_array() {}
+
+function curl_share_close() {}
+
+function curl_share_errno() {}
+
+function curl_share_init() {}
+
+function curl_share_setopt() {}
+
+function curl_share_strerror() {}
+
+function curl_strerror() {}
+
+function curl_unescape() {}
+
+function curl_version() {}
+
+// End of curl
@@ -0,0 +1,102 @@
+<?php
+
+// Start of date
+// Trimmed to the function declarations read by the dictionary generator.
+
+function checkdate() {}
+
+function date() {}
+
+function date_add() {}
+
+function date_create() {}
+
+function date_create_from_format() {}
+
+function date_create_immutable() {}
+
+function date_create_immutable_from_format() {}
+
+function date_date_set() {}
+
+function date_default_timezone_get() {}
+
+function date_default_timezone_set() {}
+
+function date_diff() {}
+
+function date_format() {}
+
+function date_get_last_errors() {}
+
+function date_interval_create_from_date_string() {}
+
+function date_interval_format() {}
+
+function date_isodate_set() {}
+
+function date_modify() {}
+
+function date_offset_get() {}
+
+function date_parse() {}
+
+function date_parse_from_format() {}
+
+function date_sub() {}
+
+function date_sun_info() {}
+
+function date_sunrise() {}
+
+function date_sunset() {}
+
+function date_time_set() {}
+
+function date_timestamp_get() {}
+
+function date_timestamp_set() {}
+
+function date_timezone_get() {}
+
+function date_timezone_set() {}
+
+function getdate() {}
+
+function gmdate() {}
+
+function gmmktime() {}
+
+function gmstrftime() {}
+
+function idate() {}
+
+function localtime() {}
+
+function mktime() {}
+
+function strftime() {}
+
+function strtotime() {}
+
+function time() {}
+
+function timezone_abbreviations_list() {}
+
+function timezone_identifiers_list() {}
+
+function timezone_location_get() {}
+
+function timezone_name_from_abbr() {}
+
+function timezone_name_get() {}
+
+function timezone_offset_get() {}
+
+function timezone_open() {}
+
+function timezone_transitions_get() {}
+
+function timezone_version_get() {}
+
+// End of date
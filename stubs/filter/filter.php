@@ -0,0 +1,20 @@
+<?php
+
+// Start of filter
+// Trimmed to the function declarations read by the dictionary generator.
+
+function filter_has_var() {}
+
+function filter_id() {}
+
+function filter_input() {}
+
+function filter_input_array() {}
+
+function filter_list() {}
+
+function filter_var() {}
+
+function filter_var_array() {}
+
+// End of filter
@@ -0,0 +1,108 @@
+<?php
+
+// Start of gmp
+// Trimmed to the function declarations read by the dictionary generator.
+
+function gmp_abs() {}
+
+function gmp_add() {}
+
+function gmp_and() {}
+
+function gmp_binomial() {}
+
+function gmp_clrbit() {}
+
+function gmp_cmp() {}
+
+function gmp_com() {}
+
+function gmp_div() {}
+
+function gmp_div_q() {}
+
+function gmp_div_qr() {}
+
+function gmp_div_r() {}
+
+function gmp_divexact() {}
+
+function gmp_export() {}
+
+function gmp_fact() {}
+
+function gmp_gcd() {}
+
+function gmp_gcdext() {}
+
+function gmp_hamdist() {}
+
+function gmp_import() {}
+
+function gmp_init() {}
+
+function gmp_intval() {}
+
+function gmp_invert() {}
+
+function gmp_jacobi() {}
+
+function gmp_kronecker() {}
+
+function gmp_lcm() {}
+
+function gmp_legendre() {}
+
+function gmp_mod() {}
+
+function gmp_mul() {}
+
+function gmp_neg() {}
+
+function gmp_nextprime() {}
+
+function gmp_or() {}
+
+function gmp_perfect_power() {}
+
+function gmp_perfect_square() {}
+
+function gmp_popcount() {}
+
+function gmp_pow() {}
+
+function gmp_powm() {}
+
+function gmp_prob_prime() {}
+
+function gmp_random_bits() {}
+
+function gmp_random_range() {}
+
+function gmp_random_seed() {}
+
+function gmp_root() {}
+
+function gmp_rootrem() {}
+
+function gmp_scan0() {}
+
+function gmp_scan1() {}
+
+function gmp_setbit() {}
+
+function gmp_sign() {}
+
+function gmp_sqrt() {}
+
+function gmp_sqrtrem() {}
+
+function gmp_strval() {}
+
+function gmp_sub() {}
+
+function gmp_testbit() {}
+
+function gmp_xor() {}
+
+// End of gmp
@@ -0,0 +1,36 @@
+<?php
+
+// Start of hash
+// Trimmed to the function declarations read by the dictionary generator.
+
+function hash() {}
+
+function hash_algos() {}
+
+function hash_copy() {}
+
+function hash_equals() {}
+
+function hash_file() {}
+
+function hash_final() {}
+
+function hash_hkdf() {}
+
+function hash_hmac() {}
+
+function hash_hmac_algos() {}
+
+function hash_hmac_file() {}
+
+function hash_init() {}
+
+function hash_pbkdf2() {}
+
+function hash_update() {}
+
+function hash_update_file() {}
+
+function hash_update_stream() {}
+
+// End of hash
@@ -0,0 +1,26 @@
+<?php
+
+// Start of iconv
+// Trimmed to the function declarations read by the dictionary generator.
+
+function iconv() {}
+
+function iconv_get_encoding() {}
+
+function iconv_mime_decode() {}
+
+function iconv_mime_decode_headers() {}
+
+function iconv_mime_encode() {}
+
+function iconv_set_encoding() {}
+
+function iconv_strlen() {}
+
+function iconv_strpos() {}
+
+function iconv_strrpos() {}
+
+function iconv_substr() {}
+
+// End of iconv
@@ -0,0 +1,150 @@
+<?php
+
+// Start of intl
+// Trimmed to the function declarations read by the dictionary generator.
+
+function collator_asort() {}
+
+function collator_compare() {}
+
+function collator_create() {}
+
+function collator_sort() {}
+
+function datefmt_create() {}
+
+function datefmt_format() {}
+
+function datefmt_format_object() {}
+
+function datefmt_get_calendar() {}
+
+function datefmt_get_datetype() {}
+
+function datefmt_get_locale() {}
+
+function datefmt_get_pattern() {}
+
+function datefmt_get_timetype() {}
+
+function datefmt_get_timezone() {}
+
+function datefmt_get_timezone_id() {}
+
+function datefmt_is_lenient() {}
+
+function datefmt_localtime() {}
+
+function datefmt_parse() {}
+
+function datefmt_set_calendar() {}
+
+function datefmt_set_lenient() {}
+
+function datefmt_set_pattern() {}
+
+function datefmt_set_timezone() {}
+
+function grapheme_extract() {}
+
+function grapheme_stripos() {}
+
+function grapheme_stristr() {}
+
+function grapheme_strlen() {}
+
+function grapheme_strpos() {}
+
+function grapheme_strripos() {}
+
+function grapheme_strrpos() {}
+
+function grapheme_strstr() {}
+
+function grapheme_substr() {}
+
+function idn_to_ascii() {}
+
+function idn_to_utf8() {}
+
+function intl_error_name() {}
+
+function intl_get_error_code() {}
+
+function intl_get_error_message() {}
+
+function intl_is_failure() {}
+
+function locale_accept_from_http() {}
+
+function locale_canonicalize() {}
+
+function locale_compose() {}
+
+function locale_filter_matches() {}
+
+function locale_get_all_variants() {}
+
+function locale_get_default() {}
+
+function locale_get_display_language() {}
+
+function locale_get_display_name() {}
+
+function locale_get_display_region() {}
+
+function locale_get_display_script() {}
+
+function locale_get_display_variant() {}
+
+function locale_get_keywords() {}
+
+function locale_get_primary_language() {}
+
+function locale_get_region() {}
+
+function locale_get_script() {}
+
+function locale_lookup() {}
+
+function locale_parse() {}
+
+function locale_set_default() {}
+
+function msgfmt_create() {}
+
+function msgfmt_format() {}
+
+function msgfmt_format_message() {}
+
+function msgfmt_parse() {}
+
+function msgfmt_parse_message() {}
+
+function normalizer_get_raw_decomposition() {}
+
+function normalizer_is_normalized() {}
+
+function normalizer_normalize() {}
+
+function numfmt_create() {}
+
+function numfmt_format() {}
+
+function numfmt_format_currency() {}
+
+function numfmt_get_error_code() {}
+
+function numfmt_get_error_message() {}
+
+function numfmt_parse() {}
+
+function numfmt_parse_currency() {}
+
+function transliterator_create() {}
+
+function transliterator_list_ids() {}
+
+function transliterator_transliterate() {}
+
+// End of intl
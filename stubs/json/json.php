@@ -0,0 +1,14 @@
+<?php
+
+// Start of json
+// Trimmed to the function declarations read by the dictionary generator.
+
+function json_decode() {}
+
+function json_encode() {}
+
+function json_last_error() {}
+
+function json_last_error_msg() {}
+
+// End of json
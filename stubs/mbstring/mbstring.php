@@ -0,0 +1,124 @@
+<?php
+
+// Start of mbstring
+// Trimmed to the function declarations read by the dictionary generator.
+
+function mb_check_encoding() {}
+
+function mb_chr() {}
+
+function mb_convert_case() {}
+
+function mb_convert_encoding() {}
+
+function mb_convert_kana() {}
+
+function mb_convert_variables() {}
+
+function mb_decode_mimeheader() {}
+
+function mb_decode_numericentity() {}
+
+function mb_detect_encoding() {}
+
+function mb_detect_order() {}
+
+function mb_encode_mimeheader() {}
+
+function mb_encode_numericentity() {}
+
+function mb_encoding_aliases() {}
+
+function mb_ereg() {}
+
+function mb_ereg_match() {}
+
+function mb_ereg_replace() {}
+
+function mb_ereg_replace_callback() {}
+
+function mb_ereg_search() {}
+
+function mb_ereg_search_getpos() {}
+
+function mb_ereg_search_getregs() {}
+
+function mb_ereg_search_init() {}
+
+function mb_ereg_search_pos() {}
+
+function mb_ereg_search_regs() {}
+
+function mb_ereg_search_setpos() {}
+
+function mb_eregi() {}
+
+function mb_eregi_replace() {}
+
+function mb_get_info() {}
+
+function mb_http_input() {}
+
+function mb_http_output() {}
+
+function mb_internal_encoding() {}
+
+function mb_language() {}
+
+function mb_list_encodings() {}
+
+function mb_ord() {}
+
+function mb_output_handler() {}
+
+function mb_parse_str() {}
+
+function mb_preferred_mime_name() {}
+
+function mb_regex_encoding() {}
+
+function mb_regex_set_options() {}
+
+function mb_scrub() {}
+
+function mb_send_mail() {}
+
+function mb_split() {}
+
+function mb_str_split() {}
+
+function mb_strcut() {}
+
+function mb_strimwidth() {}
+
+function mb_stripos() {}
+
+function mb_stristr() {}
+
+function mb_strlen() {}
+
+function mb_strpos() {}
+
+function mb_strrchr() {}
+
+function mb_strrichr() {}
+
+function mb_strripos() {}
+
+function mb_strrpos() {}
+
+function mb_strstr() {}
+
+function mb_strtolower() {}
+
+function mb_strtoupper() {}
+
+function mb_strwidth() {}
+
+function mb_substitute_character() {}
+
+function mb_substr() {}
+
+function mb_substr_count() {}
+
+// End of mbstring
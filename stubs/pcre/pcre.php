@@ -0,0 +1,28 @@
+<?php
+
+// Start of pcre
+// Trimmed to the function declarations read by the dictionary generator.
+
+function preg_filter() {}
+
+function preg_grep() {}
+
+function preg_last_error() {}
+
+function preg_last_error_msg() {}
+
+function preg_match() {}
+
+function preg_match_all() {}
+
+function preg_quote() {}
+
+function preg_replace() {}
+
+function preg_replace_callback() {}
+
+function preg_replace_callback_array() {}
+
+function preg_split() {}
+
+// End of pcre
@@ -0,0 +1,118 @@
+<?php
+
+// Start of sodium
+// Trimmed to the function declarations read by the dictionary generator.
+
+function sodium_add() {}
+
+function sodium_base642bin() {}
+
+function sodium_bin2base64() {}
+
+function sodium_bin2hex() {}
+
+function sodium_compare() {}
+
+function sodium_crypto_aead_aes256gcm_decrypt() {}
+
+function sodium_crypto_aead_aes256gcm_encrypt() {}
+
+function sodium_crypto_aead_aes256gcm_is_available() {}
+
+function sodium_crypto_aead_aes256gcm_keygen() {}
+
+function sodium_crypto_aead_chacha20poly1305_decrypt() {}
+
+function sodium_crypto_aead_chacha20poly1305_encrypt() {}
+
+function sodium_crypto_aead_chacha20poly1305_keygen() {}
+
+function sodium_crypto_aead_xchacha20poly1305_ietf_decrypt() {}
+
+function sodium_crypto_aead_xchacha20poly1305_ietf_encrypt() {}
+
+function sodium_crypto_aead_xchacha20poly1305_ietf_keygen() {}
+
+function sodium_crypto_auth() {}
+
+function sodium_crypto_auth_keygen() {}
+
+function sodium_crypto_auth_verify() {}
+
+function sodium_crypto_box() {}
+
+function sodium_crypto_box_keypair() {}
+
+function sodium_crypto_box_open() {}
+
+function sodium_crypto_box_publickey() {}
+
+function sodium_crypto_box_seal() {}
+
+function sodium_crypto_box_seal_open() {}
+
+function sodium_crypto_box_secretkey() {}
+
+function sodium_crypto_generichash() {}
+
+function sodium_crypto_generichash_final() {}
+
+function sodium_crypto_generichash_init() {}
+
+function sodium_crypto_generichash_keygen() {}
+
+function sodium_crypto_generichash_update() {}
+
+function sodium_crypto_kdf_derive_from_key() {}
+
+function sodium_crypto_kdf_keygen() {}
+
+function sodium_crypto_pwhash() {}
+
+function sodium_crypto_pwhash_str() {}
+
+function sodium_crypto_pwhash_str_needs_rehash() {}
+
+function sodium_crypto_pwhash_str_verify() {}
+
+function sodium_crypto_scalarmult() {}
+
+function sodium_crypto_secretbox() {}
+
+function sodium_crypto_secretbox_keygen() {}
+
+function sodium_crypto_secretbox_open() {}
+
+function sodium_crypto_shorthash() {}
+
+function sodium_crypto_sign() {}
+
+function sodium_crypto_sign_detached() {}
+
+function sodium_crypto_sign_keypair() {}
+
+function sodium_crypto_sign_open() {}
+
+function sodium_crypto_sign_publickey() {}
+
+function sodium_crypto_sign_secretkey() {}
+
+function sodium_crypto_sign_verify_detached() {}
+
+function sodium_crypto_stream() {}
+
+function sodium_crypto_stream_xor() {}
+
+function sodium_hex2bin() {}
+
+function sodium_increment() {}
+
+function sodium_memcmp() {}
+
+function sodium_memzero() {}
+
+function sodium_pad() {}
+
+function sodium_unpad() {}
+
+// End of sodium
@@ -0,0 +1,726 @@
+<?php
+
+// Start of standard
+// Trimmed to the function declarations read by the dictionary generator.
+
+function abs() {}
+
+function acos() {}
+
+function acosh() {}
+
+function addcslashes() {}
+
+function addslashes() {}
+
+function array_change_key_case() {}
+
+function array_chunk() {}
+
+function array_column() {}
+
+function array_combine() {}
+
+function array_count_values() {}
+
+function array_diff() {}
+
+function array_diff_assoc() {}
+
+function array_diff_key() {}
+
+function array_diff_uassoc() {}
+
+function array_diff_ukey() {}
+
+function array_fill() {}
+
+function array_fill_keys() {}
+
+function array_filter() {}
+
+function array_flip() {}
+
+function array_intersect() {}
+
+function array_intersect_assoc() {}
+
+function array_intersect_key() {}
+
+function array_intersect_uassoc() {}
+
+function array_intersect_ukey() {}
+
+function array_is_list() {}
+
+function array_key_exists() {}
+
+function array_key_first() {}
+
+function array_key_last() {}
+
+function array_keys() {}
+
+function array_map() {}
+
+function array_merge() {}
+
+function array_merge_recursive() {}
+
+function array_multisort() {}
+
+function array_pad() {}
+
+function array_pop() {}
+
+function array_product() {}
+
+function array_push() {}
+
+function array_rand() {}
+
+function array_reduce() {}
+
+function array_replace() {}
+
+function array_replace_recursive() {}
+
+function array_reverse() {}
+
+function array_search() {}
+
+function array_shift() {}
+
+function array_slice() {}
+
+function array_splice() {}
+
+function array_sum() {}
+
+function array_udiff() {}
+
+function array_udiff_assoc() {}
+
+function array_udiff_uassoc() {}
+
+function array_uintersect() {}
+
+function array_uintersect_assoc() {}
+
+function array_uintersect_uassoc() {}
+
+function array_unique() {}
+
+function array_unshift() {}
+
+function array_values() {}
+
+function array_walk() {}
+
+function array_walk_recursive() {}
+
+function arsort() {}
+
+function asin() {}
+
+function asinh() {}
+
+function asort() {}
+
+function atan() {}
+
+function atan2() {}
+
+function atanh() {}
+
+function base64_decode() {}
+
+function base64_encode() {}
+
+function base_convert() {}
+
+function basename() {}
+
+function bin2hex() {}
+
+function bindec() {}
+
+function boolval() {}
+
+function call_user_func() {}
+
+function call_user_func_array() {}
+
+function ceil() {}
+
+function chmod() {}
+
+function chop() {}
+
+function chr() {}
+
+function chunk_split() {}
+
+function compact() {}
+
+function connection_aborted() {}
+
+function connection_status() {}
+
+function constant() {}
+
+function convert_cyr_string() {}
+
+function convert_uudecode() {}
+
+function convert_uuencode() {}
+
+function copy() {}
+
+function cos() {}
+
+function cosh() {}
+
+function count() {}
+
+function count_chars() {}
+
+function crc32() {}
+
+function crypt() {}
+
+function current() {}
+
+function debug_zval_dump() {}
+
+function decbin() {}
+
+function dechex() {}
+
+function decoct() {}
+
+function deg2rad() {}
+
+function dirname() {}
+
+function doubleval() {}
+
+function end() {}
+
+function error_get_last() {}
+
+function error_log() {}
+
+function error_reporting() {}
+
+function exp() {}
+
+function explode() {}
+
+function expm1() {}
+
+function extract() {}
+
+function fclose() {}
+
+function fdiv() {}
+
+function feof() {}
+
+function fflush() {}
+
+function fgetcsv() {}
+
+function fgets() {}
+
+function file() {}
+
+function file_exists() {}
+
+function file_get_contents() {}
+
+function file_put_contents() {}
+
+function floatval() {}
+
+function floor() {}
+
+function flush() {}
+
+function fmod() {}
+
+function fopen() {}
+
+function forward_static_call() {}
+
+function forward_static_call_array() {}
+
+function fprintf() {}
+
+function fputcsv() {}
+
+function fread() {}
+
+function fseek() {}
+
+function ftell() {}
+
+function fwrite() {}
+
+function gc_collect_cycles() {}
+
+function get_browser() {}
+
+function get_debug_type() {}
+
+function get_html_translation_table() {}
+
+function getenv() {}
+
+function getlastmod() {}
+
+function getrandmax() {}
+
+function gettimeofday() {}
+
+function gettype() {}
+
+function glob() {}
+
+function header() {}
+
+function headers_sent() {}
+
+function hebrev() {}
+
+function hebrevc() {}
+
+function hex2bin() {}
+
+function hexdec() {}
+
+function highlight_file() {}
+
+function highlight_string() {}
+
+function hrtime() {}
+
+function html_entity_decode() {}
+
+function htmlentities() {}
+
+function htmlspecialchars() {}
+
+function htmlspecialchars_decode() {}
+
+function http_build_query() {}
+
+function hypot() {}
+
+function ignore_user_abort() {}
+
+function implode() {}
+
+function in_array() {}
+
+function ini_get() {}
+
+function ini_set() {}
+
+function intdiv() {}
+
+function intval() {}
+
+function is_array() {}
+
+function is_bool() {}
+
+function is_callable() {}
+
+function is_countable() {}
+
+function is_dir() {}
+
+function is_double() {}
+
+function is_file() {}
+
+function is_finite() {}
+
+function is_float() {}
+
+function is_infinite() {}
+
+function is_int() {}
+
+function is_integer() {}
+
+function is_iterable() {}
+
+function is_long() {}
+
+function is_nan() {}
+
+function is_null() {}
+
+function is_numeric() {}
+
+function is_object() {}
+
+function is_readable() {}
+
+function is_real() {}
+
+function is_resource() {}
+
+function is_scalar() {}
+
+function is_string() {}
+
+function is_writable() {}
+
+function join() {}
+
+function key() {}
+
+function key_exists() {}
+
+function krsort() {}
+
+function ksort() {}
+
+function lcfirst() {}
+
+function lcg_value() {}
+
+function levenshtein() {}
+
+function localeconv() {}
+
+function log() {}
+
+function log10() {}
+
+function log1p() {}
+
+function ltrim() {}
+
+function max() {}
+
+function md5() {}
+
+function md5_file() {}
+
+function memory_get_peak_usage() {}
+
+function memory_get_usage() {}
+
+function metaphone() {}
+
+function microtime() {}
+
+function min() {}
+
+function mkdir() {}
+
+function money_format() {}
+
+function mt_getrandmax() {}
+
+function mt_rand() {}
+
+function mt_srand() {}
+
+function natcasesort() {}
+
+function natsort() {}
+
+function next() {}
+
+function nl2br() {}
+
+function nl_langinfo() {}
+
+function number_format() {}
+
+function ob_end_clean() {}
+
+function ob_get_clean() {}
+
+function ob_start() {}
+
+function octdec() {}
+
+function ord() {}
+
+function pack() {}
+
+function parse_str() {}
+
+function parse_url() {}
+
+function password_hash() {}
+
+function password_verify() {}
+
+function pathinfo() {}
+
+function php_sapi_name() {}
+
+function php_strip_whitespace() {}
+
+function php_uname() {}
+
+function phpversion() {}
+
+function pi() {}
+
+function pos() {}
+
+function pow() {}
+
+function prev() {}
+
+function print_r() {}
+
+function printf() {}
+
+function putenv() {}
+
+function quoted_printable_decode() {}
+
+function quoted_printable_encode() {}
+
+function quotemeta() {}
+
+function rad2deg() {}
+
+function rand() {}
+
+function random_bytes() {}
+
+function random_int() {}
+
+function range() {}
+
+function rawurldecode() {}
+
+function rawurlencode() {}
+
+function realpath() {}
+
+function register_shutdown_function() {}
+
+function register_tick_function() {}
+
+function rename() {}
+
+function reset() {}
+
+function restore_error_handler() {}
+
+function rmdir() {}
+
+function round() {}
+
+function rsort() {}
+
+function rtrim() {}
+
+function sapi_windows_cp_conv() {}
+
+function sapi_windows_cp_get() {}
+
+function sapi_windows_cp_is_utf8() {}
+
+function sapi_windows_cp_set() {}
+
+function sapi_windows_generate_ctrl_event() {}
+
+function sapi_windows_set_ctrl_handler() {}
+
+function sapi_windows_vt100_support() {}
+
+function scandir() {}
+
+function serialize() {}
+
+function set_error_handler() {}
+
+function set_exception_handler() {}
+
+function setcookie() {}
+
+function setlocale() {}
+
+function settype() {}
+
+function sha1() {}
+
+function sha1_file() {}
+
+function show_source() {}
+
+function shuffle() {}
+
+function similar_text() {}
+
+function sin() {}
+
+function sinh() {}
+
+function sizeof() {}
+
+function sleep() {}
+
+function sort() {}
+
+function soundex() {}
+
+function sprintf() {}
+
+function sqrt() {}
+
+function srand() {}
+
+function sscanf() {}
+
+function str_contains() {}
+
+function str_ends_with() {}
+
+function str_getcsv() {}
+
+function str_ireplace() {}
+
+function str_pad() {}
+
+function str_repeat() {}
+
+function str_replace() {}
+
+function str_rot13() {}
+
+function str_shuffle() {}
+
+function str_split() {}
+
+function str_starts_with() {}
+
+function str_word_count() {}
+
+function strchr() {}
+
+function strcoll() {}
+
+function strcspn() {}
+
+function strip_tags() {}
+
+function stripcslashes() {}
+
+function stripos() {}
+
+function stripslashes() {}
+
+function stristr() {}
+
+function strnatcasecmp() {}
+
+function strnatcmp() {}
+
+function strpbrk() {}
+
+function strpos() {}
+
+function strrchr() {}
+
+function strrev() {}
+
+function strripos() {}
+
+function strrpos() {}
+
+function strspn() {}
+
+function strstr() {}
+
+function strtok() {}
+
+function strtolower() {}
+
+function strtoupper() {}
+
+function strtr() {}
+
+function strval() {}
+
+function substr() {}
+
+function substr_compare() {}
+
+function substr_count() {}
+
+function substr_replace() {}
+
+function sys_getloadavg() {}
+
+function tan() {}
+
+function tanh() {}
+
+function tempnam() {}
+
+function time_nanosleep() {}
+
+function time_sleep_until() {}
+
+function tmpfile() {}
+
+function touch() {}
+
+function trigger_error() {}
+
+function trim() {}
+
+function uasort() {}
+
+function ucfirst() {}
+
+function ucwords() {}
+
+function uksort() {}
+
+function uniqid() {}
+
+function unlink() {}
+
+function unpack() {}
+
+function unregister_tick_function() {}
+
+function unserialize() {}
+
+function urldecode() {}
+
+function urlencode() {}
+
+function usleep() {}
+
+function usort() {}
+
+function var_dump() {}
+
+function var_export() {}
+
+function version_compare() {}
+
+function vfprintf() {}
+
+function vprintf() {}
+
+function vsprintf() {}
+
+function wordwrap() {}
+
+// End of standard
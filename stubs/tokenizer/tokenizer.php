@@ -0,0 +1,10 @@
+<?php
+
+// Start of tokenizer
+// Trimmed to the function declarations read by the dictionary generator.
+
+function token_get_all() {}
+
+function token_name() {}
+
+// End of tokenizer